@@ -25,3 +25,36 @@ application {
     mainClass.set("edu.hsutx.MainApp")
 }
 
+
+// Replays the reservation log with no GUI and no per-line delay, then reports throughput.
+// Pass other options with --args, e.g. gradle runBatch --args="data/reservations.csv --arena --map build/seatmap.csv"
+tasks.register<JavaExec>("runBatch") {
+    group = "application"
+    description = "Replays a reservation CSV headlessly at full speed."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("edu.hsutx.BatchReplay")
+    systemProperty("java.awt.headless", "true")
+    args("data/reservations.csv")
+}
+
+// JMH microbenchmarks live in src/jmh/java, in the edu.hsutx package so they can reach package-private code.
+// gradle jmh runs them all with the gc profiler and writes build/reports/jmh/results.json.
+// --args replaces those defaults, e.g. gradle jmh --args="CowboySeatTreeBenchmark -p backend=ARENA -prof gc"
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks, reporting throughput, average time and allocation rate."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-prof", "gc", "-rf", "json", "-rff", layout.buildDirectory.file("reports/jmh/results.json").get().asFile.path)
+    doFirst { layout.buildDirectory.dir("reports/jmh").get().asFile.mkdirs() }
+}
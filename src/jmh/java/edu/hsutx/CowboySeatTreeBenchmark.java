@@ -0,0 +1,100 @@
+package edu.hsutx;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Seat searches and bookings on a fragmented 1M-seat stadium, for each storage backend.
+ *
+ * Setup books {@code parties} random parties of 1 to 30 seats across the stadium and then cancels
+ * every other one, leaving about 15,000 free fragments of mixed sizes between the bookings.
+ * The searches leave the seat map untouched, and each booking is released again in the same
+ * operation, so every measurement sees the same fragmented map.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CowboySeatTreeBenchmark {
+    private static final int QUERY_COUNT = 1 << 16;  // Precomputed random queries, cycled through
+
+    @Param({"NODES", "ARENA", "PERSISTENT"})
+    CowboySeatTree.Backend backend;
+
+    @Param({"50000"})
+    int parties;
+
+    private CowboySeatTree seatTree;
+    private int[] thresholds;
+    private int[] seats;
+    private int[] preferences;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        seatTree = new CowboySeatTree(backend);
+        seatTree.insert(new SeatAssignment(BatchReplay.STADIUM_SEATS, 1));
+        SeatAssignment[] booked = new SeatAssignment[parties];
+        for (int i = 0; i < parties; i++) {
+            booked[i] = seatTree.allocate("Party " + i, 1 + random.nextInt(30), random.nextInt(101));
+        }
+        for (int i = 0; i < parties; i += 2) {
+            if (booked[i] != null) seatTree.release(booked[i]);
+        }
+
+        thresholds = new int[QUERY_COUNT];
+        seats = new int[QUERY_COUNT];
+        preferences = new int[QUERY_COUNT];
+        targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            thresholds[i] = 1 + random.nextInt(200);
+            seats[i] = 1 + random.nextInt(100);
+            preferences[i] = random.nextInt(101);
+            targets[i] = 1 + random.nextInt(BatchReplay.STADIUM_SEATS);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public SeatAssignment thresholdSearch() {
+        return seatTree.getUnassignedBlockOverThreshold(thresholds[nextIndex()]);
+    }
+
+    @Benchmark
+    public SeatAssignment nearestFreeBlock() {
+        int index = nextIndex();
+        return seatTree.getNearestFreeBlock(targets[index], seats[index]);
+    }
+
+    @Benchmark
+    public SeatAssignment freeBlockContaining() {
+        return seatTree.getFreeBlockContaining(targets[nextIndex()]);
+    }
+
+    @Benchmark
+    public SeatAssignment allocateAndRelease() {
+        int index = nextIndex();
+        SeatAssignment reservation = seatTree.allocate("Benchmark", seats[index], preferences[index]);
+        return reservation == null ? null : seatTree.release(reservation);
+    }
+}
@@ -0,0 +1,160 @@
+package edu.hsutx;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the three Red-Black Tree implementations on the same workloads: the String-keyed
+ * {@link RedBlackTree}, the primitive-keyed {@link LongRedBlackTree}, and the copy-on-write
+ * {@link PersistentLongRedBlackTree}.
+ *
+ * Each tree starts with {@code size} random keys drawn from twice that range. A mix operation looks
+ * up the next random key and deletes it if present or inserts it if not, so the tree stays near its
+ * starting size. Sequential builds insert 100,000 increasing keys into an empty tree, the worst
+ * case for rebalancing, and are reported per insert.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RedBlackTreeBenchmark {
+    private static final int KEY_COUNT = 1 << 16;  // Precomputed random keys, cycled through
+    private static final int SEQUENTIAL_COUNT = 100000;  // Keys per sequential build
+
+    @Param({"10000", "100000"})
+    int size;
+
+    private long[] keys;
+    private String[] stringKeys;
+    private String[] sequentialStringKeys;
+    private int next;
+
+    private RedBlackTree<Integer> stringTree;
+    private LongRedBlackTree<Integer> longTree;
+    private PersistentLongRedBlackTree<Integer> persistentTree;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new long[KEY_COUNT];
+        stringKeys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = random.nextInt(2 * size);
+            stringKeys[i] = String.format("%013d", keys[i]);
+        }
+        sequentialStringKeys = new String[SEQUENTIAL_COUNT];
+        for (int i = 0; i < SEQUENTIAL_COUNT; i++) {
+            sequentialStringKeys[i] = String.format("%013d", i);
+        }
+
+        stringTree = new RedBlackTree<>();
+        longTree = new LongRedBlackTree<>();
+        persistentTree = new PersistentLongRedBlackTree<>();
+        for (int i = 0; i < size; i++) {
+            long key = random.nextInt(2 * size);
+            if (longTree.getValue(key) == null) {
+                stringTree.insert(String.format("%013d", key), i);
+                longTree.insert(key, i);
+                persistentTree.insert(key, i);
+            }
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (KEY_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public int stringInsertDeleteMix() {
+        String key = stringKeys[nextIndex()];
+        if (stringTree.getValue(key) == null) {
+            stringTree.insert(key, next);
+        } else {
+            stringTree.delete(key);
+        }
+        return stringTree.getSize();
+    }
+
+    @Benchmark
+    public int longInsertDeleteMix() {
+        long key = keys[nextIndex()];
+        if (longTree.getValue(key) == null) {
+            longTree.insert(key, next);
+        } else {
+            longTree.delete(key);
+        }
+        return longTree.getSize();
+    }
+
+    @Benchmark
+    public int persistentInsertDeleteMix() {
+        long key = keys[nextIndex()];
+        if (persistentTree.getValue(key) == null) {
+            persistentTree.insert(key, next);
+        } else {
+            persistentTree.delete(key);
+        }
+        return persistentTree.getSize();
+    }
+
+    @Benchmark
+    public Integer stringFind() {
+        return stringTree.getValue(stringKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer longFind() {
+        return longTree.getValue(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer persistentFind() {
+        return persistentTree.getValue(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEQUENTIAL_COUNT)
+    public RedBlackTree<Integer> stringSequentialInsert() {
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int i = 0; i < SEQUENTIAL_COUNT; i++) {
+            tree.insert(sequentialStringKeys[i], i);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEQUENTIAL_COUNT)
+    public LongRedBlackTree<Integer> longSequentialInsert() {
+        LongRedBlackTree<Integer> tree = new LongRedBlackTree<>();
+        for (int i = 0; i < SEQUENTIAL_COUNT; i++) {
+            tree.insert(i, i);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEQUENTIAL_COUNT)
+    public PersistentLongRedBlackTree<Integer> persistentSequentialInsert() {
+        PersistentLongRedBlackTree<Integer> tree = new PersistentLongRedBlackTree<>();
+        for (int i = 0; i < SEQUENTIAL_COUNT; i++) {
+            tree.insert(i, i);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,50 @@
+package edu.hsutx;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replays the whole reservation log into an empty stadium, as {@link BatchReplay} does, once per
+ * operation. This is the end-to-end number: decoding, placement, cancellations and index upkeep.
+ * Runs from the project directory, where {@code csv} is resolved.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+    @Param({"data/reservations.csv"})
+    String csv;
+
+    @Param({"NODES", "ARENA", "PERSISTENT"})
+    CowboySeatTree.Backend backend;
+
+    @Param({"1", "64"})
+    int batchSize;
+
+    @Benchmark
+    public long replay() throws IOException {
+        CowboySeatTree seatTree = new CowboySeatTree(backend);
+        BatchReplay replay = new BatchReplay(seatTree);
+        replay.setBatching(batchSize, false);
+        try (ReservationCommandReader reader = new ReservationCommandReader(Path.of(csv))) {
+            replay.replay(reader);
+        }
+        return replay.getAllocationCount();
+    }
+}
@@ -0,0 +1,94 @@
+package edu.hsutx;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Concurrent booking throughput of the {@link SectionedReservationEngine}, driven from four threads
+ * at once. A single section is the one-lock baseline; more sections let requests that land in
+ * different sections run in parallel.
+ *
+ * Setup books {@code parties} random parties of 1 to 30 seats across a 1M-seat stadium and cancels
+ * every other one, so every section is fragmented. Each operation books a party for one of the
+ * thread's own owners and cancels it again, leaving the seat map as it was.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SectionedReservationEngineBenchmark {
+    private static final int REQUEST_COUNT = 1 << 14;  // Precomputed requests per thread, cycled through
+
+    @Param({"1", "8", "64"})
+    int sections;
+
+    @Param({"ARENA", "PERSISTENT"})
+    CowboySeatTree.Backend backend;
+
+    @Param({"50000"})
+    int parties;
+
+    private SectionedReservationEngine engine;
+
+    /**
+     * Each thread's own owners and request sizes, so threads never cancel each other's bookings.
+     */
+    @State(Scope.Thread)
+    public static class Requests {
+        String[] owners;
+        int[] seats;
+        int[] preferences;
+        int next;
+
+        @Setup
+        public void setUp(ThreadParams threads) {
+            Random random = new Random(threads.getThreadIndex());
+            owners = new String[REQUEST_COUNT];
+            seats = new int[REQUEST_COUNT];
+            preferences = new int[REQUEST_COUNT];
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                owners[i] = "Thread " + threads.getThreadIndex() + " party " + i;
+                seats[i] = 1 + random.nextInt(30);
+                preferences[i] = random.nextInt(101);
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        engine = new SectionedReservationEngine(BatchReplay.STADIUM_SEATS, sections, backend);
+        for (int i = 0; i < parties; i++) {
+            engine.allocate("Party " + i, 1 + random.nextInt(30), random.nextInt(101));
+        }
+        for (int i = 0; i < parties; i += 2) {
+            engine.cancel("Party " + i);
+        }
+    }
+
+    @Benchmark
+    public SeatAssignment[] allocateAndCancel(Requests requests) {
+        int index = requests.next;
+        requests.next = (index + 1) & (REQUEST_COUNT - 1);
+        String owner = requests.owners[index];
+        SeatAssignment[] parts = engine.allocate(owner, requests.seats[index], requests.preferences[index]);
+        return parts == null ? null : engine.cancel(owner);
+    }
+}
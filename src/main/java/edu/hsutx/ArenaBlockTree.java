@@ -0,0 +1,740 @@
+package edu.hsutx;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A Red-Black Tree of SeatAssignment blocks stored as parallel arrays instead of node objects.
+ * Follows the same properties and algorithms as {@link LongRedBlackTree}, but a node is just an
+ * int index into the arrays below, and links are indices rather than references.
+ *
+ * Slot 0 is the black leaf shared by every node and is never written. Deleted slots go onto a
+ * free-list (threaded through the right-child array) and are reused by later insertions,
+ * so a long replay reaches a steady state with no per-node allocation at all.
+ */
+class ArenaBlockTree implements BlockIndex {
+    private static final int NIL = 0;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[] keys;
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private boolean[] red;
+    private int[] weight;       // seat quantity of the block in this slot
+    private long[] maxWeight;   // largest weight in this subtree
+    private long[] weightSum;   // total weight in this subtree
+    private int[] count;        // number of slots in this subtree
+    private SeatAssignment[] values;
+
+    private int root = NIL;
+    private int size;
+    private int next = 1;       // first slot never handed out
+    private int freeHead = NIL; // head of the free-list
+
+    /**
+     * Initialize an empty tree with a default capacity.
+     */
+    ArenaBlockTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initialize an empty tree with room for a number of blocks before growing.
+     *
+     * @param capacity expected number of blocks
+     */
+    ArenaBlockTree(int capacity) {
+        int slots = Math.max(capacity, 1) + 1;
+        keys = new long[slots];
+        left = new int[slots];
+        right = new int[slots];
+        parent = new int[slots];
+        red = new boolean[slots];
+        weight = new int[slots];
+        maxWeight = new long[slots];
+        weightSum = new long[slots];
+        count = new int[slots];
+        values = new SeatAssignment[slots];
+    }
+
+    /**
+     * Take a slot from the free-list, or from the end of the arrays.
+     *
+     * @return a cleared slot
+     */
+    private int allocate() {
+        if (freeHead != NIL) {
+            int slot = freeHead;
+            freeHead = right[slot];
+            return slot;
+        }
+        if (next == keys.length) {
+            grow();
+        }
+        return next++;
+    }
+
+    /**
+     * Double the capacity of every array.
+     */
+    private void grow() {
+        int slots = keys.length * 2;
+        keys = Arrays.copyOf(keys, slots);
+        left = Arrays.copyOf(left, slots);
+        right = Arrays.copyOf(right, slots);
+        parent = Arrays.copyOf(parent, slots);
+        red = Arrays.copyOf(red, slots);
+        weight = Arrays.copyOf(weight, slots);
+        maxWeight = Arrays.copyOf(maxWeight, slots);
+        weightSum = Arrays.copyOf(weightSum, slots);
+        count = Arrays.copyOf(count, slots);
+        values = Arrays.copyOf(values, slots);
+    }
+
+    /**
+     * Return a slot to the free-list.
+     *
+     * @param slot slot no longer in the tree
+     */
+    private void release(int slot) {
+        values[slot] = null;
+        left[slot] = NIL;
+        parent[slot] = NIL;
+        right[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * Recompute a slot's augmented fields from its children. NIL contributes
+     * zero to every field, so children need no null checks.
+     *
+     * @param node slot to update
+     */
+    private void update(int node) {
+        int l = left[node];
+        int r = right[node];
+        maxWeight[node] = Math.max(weight[node], Math.max(maxWeight[l], maxWeight[r]));
+        weightSum[node] = weight[node] + weightSum[l] + weightSum[r];
+        count[node] = 1 + count[l] + count[r];
+    }
+
+    /**
+     * Recompute the augmentation from a slot up to the root.
+     *
+     * @param node lowest slot whose subtree changed; may be NIL
+     */
+    private void updatePath(int node) {
+        while (node != NIL) {
+            update(node);
+            node = parent[node];
+        }
+    }
+
+    @Override
+    public void insert(long key, SeatAssignment block) {
+        int par = NIL;
+        int node = root;
+        while (node != NIL) {
+            if (key == keys[node]) {// duplicate
+                return;
+            }
+            par = node;
+            node = key < keys[node] ? left[node] : right[node];
+        }
+
+        int added = allocate();
+        keys[added] = key;
+        values[added] = block;
+        weight[added] = block.getSeatQuantity();
+        maxWeight[added] = weight[added];
+        weightSum[added] = weight[added];
+        count[added] = 1;
+        left[added] = NIL;
+        right[added] = NIL;
+        parent[added] = par;
+        red[added] = true;
+        if (par == NIL) {
+            root = added;
+        } else if (key < keys[par]) {
+            left[par] = added;
+        } else {
+            right[par] = added;
+        }
+        size++;
+        updatePath(par);
+        fixInsert(added);
+    }
+
+    @Override
+    public void bulkLoad(long[] keys, SeatAssignment[] blocks, int count) {
+        if (!isEmpty()) {
+            throw new IllegalStateException("bulkLoad requires an empty tree");
+        }
+        for (int i = 1; i < count; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("keys must be strictly increasing at index " + i);
+            }
+        }
+        while (this.keys.length < count + 1) {
+            grow();
+        }
+        next = 1;
+        freeHead = NIL;
+        int redDepth = 31 - Integer.numberOfLeadingZeros(count + 1);
+        root = build(keys, blocks, 0, count - 1, NIL, 0, redDepth);
+        size = count;
+    }
+
+    /**
+     * Recursive helper for bulkLoad that builds one balanced subtree. Slots are handed
+     * out in pre-order, so a subtree's top levels sit next to each other in the arrays.
+     *
+     * @param keys     sorted keys
+     * @param blocks   matching blocks
+     * @param lo       first index of the range
+     * @param hi       last index of the range
+     * @param par      parent of the subtree root
+     * @param depth    depth of the subtree root, 0 for the tree root
+     * @param redDepth depth whose slots are colored red
+     * @return root slot of the subtree, or NIL for an empty range
+     */
+    private int build(long[] keys, SeatAssignment[] blocks, int lo, int hi, int par, int depth, int redDepth) {
+        if (lo > hi) {
+            return NIL;
+        }
+        int mid = (lo + hi) >>> 1;
+        int node = next++;
+        this.keys[node] = keys[mid];
+        values[node] = blocks[mid];
+        weight[node] = blocks[mid].getSeatQuantity();
+        parent[node] = par;
+        red[node] = depth == redDepth;
+        left[node] = build(keys, blocks, lo, mid - 1, node, depth + 1, redDepth);
+        right[node] = build(keys, blocks, mid + 1, hi, node, depth + 1, redDepth);
+        update(node);
+        return node;
+    }
+
+    @Override
+    public SeatAssignment delete(long key) {
+        int node = find(key);
+        if (node == NIL) {// not found
+            return null;
+        }
+        SeatAssignment removed = values[node];
+
+        int child;
+        int childParent;
+        boolean removedBlack;
+        if (left[node] != NIL && right[node] != NIL) {// two children
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successor = left[successor];
+            }
+            removedBlack = !red[successor];
+            child = right[successor];
+            if (parent[successor] == node) {
+                childParent = successor;
+            } else {
+                childParent = parent[successor];
+                transplant(successor, right[successor]);
+                right[successor] = right[node];
+                parent[right[successor]] = successor;
+            }
+            transplant(node, successor);
+            left[successor] = left[node];
+            parent[left[successor]] = successor;
+            red[successor] = red[node];
+        } else {// zero or one child
+            removedBlack = !red[node];
+            child = left[node] != NIL ? left[node] : right[node];
+            childParent = parent[node];
+            transplant(node, child);
+        }
+        release(node);
+        size--;
+        updatePath(childParent);
+        if (removedBlack) {
+            fixDelete(child, childParent);
+        }
+        return removed;
+    }
+
+    /**
+     * Replace the subtree rooted at one slot with the subtree rooted at another.
+     *
+     * @param out slot being replaced
+     * @param in  slot taking its place; may be NIL
+     */
+    private void transplant(int out, int in) {
+        int par = parent[out];
+        if (par == NIL) {
+            root = in;
+        } else if (out == left[par]) {
+            left[par] = in;
+        } else {
+            right[par] = in;
+        }
+        if (in != NIL) {
+            parent[in] = par;
+        }
+    }
+
+    /**
+     * Restore RBT properties after an insertion.
+     *
+     * @param node the newly inserted red slot
+     */
+    private void fixInsert(int node) {
+        while (red[parent[node]]) {
+            int par = parent[node];
+            int gp = parent[par];
+            if (par == left[gp]) {
+                int unc = right[gp];
+                if (red[unc]) {// red uncle: recolor and move up
+                    red[par] = false;
+                    red[unc] = false;
+                    red[gp] = true;
+                    node = gp;
+                } else {
+                    if (node == right[par]) {// zig-zag
+                        node = par;
+                        rotateLeft(node);
+                        par = parent[node];
+                    }
+                    red[par] = false;
+                    red[gp] = true;
+                    rotateRight(gp);
+                }
+            } else {
+                int unc = left[gp];
+                if (red[unc]) {
+                    red[par] = false;
+                    red[unc] = false;
+                    red[gp] = true;
+                    node = gp;
+                } else {
+                    if (node == left[par]) {
+                        node = par;
+                        rotateRight(node);
+                        par = parent[node];
+                    }
+                    red[par] = false;
+                    red[gp] = true;
+                    rotateLeft(gp);
+                }
+            }
+        }
+        red[root] = false;
+    }
+
+    /**
+     * Restore RBT properties after removing a black slot.
+     *
+     * @param node slot that took the removed slot's place; may be NIL
+     * @param par  parent of that position
+     */
+    private void fixDelete(int node, int par) {
+        while (node != root && !red[node]) {
+            if (node == left[par]) {
+                int sib = right[par];
+                if (red[sib]) {
+                    red[sib] = false;
+                    red[par] = true;
+                    rotateLeft(par);
+                    sib = right[par];
+                }
+                if (!red[left[sib]] && !red[right[sib]]) {
+                    red[sib] = true;
+                    node = par;
+                    par = parent[node];
+                } else {
+                    if (!red[right[sib]]) {
+                        red[left[sib]] = false;
+                        red[sib] = true;
+                        rotateRight(sib);
+                        sib = right[par];
+                    }
+                    red[sib] = red[par];
+                    red[par] = false;
+                    red[right[sib]] = false;
+                    rotateLeft(par);
+                    node = root;
+                }
+            } else {
+                int sib = left[par];
+                if (red[sib]) {
+                    red[sib] = false;
+                    red[par] = true;
+                    rotateRight(par);
+                    sib = left[par];
+                }
+                if (!red[left[sib]] && !red[right[sib]]) {
+                    red[sib] = true;
+                    node = par;
+                    par = parent[node];
+                } else {
+                    if (!red[left[sib]]) {
+                        red[right[sib]] = false;
+                        red[sib] = true;
+                        rotateLeft(sib);
+                        sib = left[par];
+                    }
+                    red[sib] = red[par];
+                    red[par] = false;
+                    red[left[sib]] = false;
+                    rotateRight(par);
+                    node = root;
+                }
+            }
+        }
+        if (node != NIL) {
+            red[node] = false;
+        }
+    }
+
+    /**
+     * Rotate left.
+     *
+     * @param node base of rotation; its right child takes its place
+     */
+    private void rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        if (left[pivot] != NIL) {
+            parent[left[pivot]] = node;
+        }
+        transplant(node, pivot);
+        left[pivot] = node;
+        parent[node] = pivot;
+        update(node);
+        update(pivot);
+    }
+
+    /**
+     * Rotate right.
+     *
+     * @param node base of rotation; its left child takes its place
+     */
+    private void rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        if (right[pivot] != NIL) {
+            parent[right[pivot]] = node;
+        }
+        transplant(node, pivot);
+        right[pivot] = node;
+        parent[node] = pivot;
+        update(node);
+        update(pivot);
+    }
+
+    /**
+     * Find a slot by key.
+     *
+     * @param key of slot to find
+     * @return slot if found, NIL if not
+     */
+    private int find(long key) {
+        int node = root;
+        while (node != NIL && key != keys[node]) {
+            node = key < keys[node] ? left[node] : right[node];
+        }
+        return node;
+    }
+
+    @Override
+    public SeatAssignment getValue(long key) {
+        return values[find(key)];
+    }
+
+    @Override
+    public SeatAssignment ceilingValue(long key) {
+        int node = root;
+        int best = NIL;
+        while (node != NIL) {
+            if (key == keys[node]) {
+                return values[node];
+            }
+            if (key < keys[node]) {
+                best = node;
+                node = left[node];
+            } else {
+                node = right[node];
+            }
+        }
+        return values[best];
+    }
+
+    @Override
+    public SeatAssignment floorValue(long key) {
+        int node = root;
+        int best = NIL;
+        while (node != NIL) {
+            if (key == keys[node]) {
+                return values[node];
+            }
+            if (key > keys[node]) {
+                best = node;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return values[best];
+    }
+
+    @Override
+    public SeatAssignment ceilingValue(long key, long minWeight) {
+        int node = root;
+        int best = NIL;
+        while (node != NIL && maxWeight[node] >= minWeight) {
+            if (key <= keys[node]) {
+                if (weight[node] >= minWeight || maxWeight[right[node]] >= minWeight) {
+                    best = node;
+                }
+                node = left[node];
+            } else {
+                node = right[node];
+            }
+        }
+        if (best == NIL || weight[best] >= minWeight) {
+            return values[best];
+        }
+
+        node = right[best];
+        while (true) {
+            if (maxWeight[left[node]] >= minWeight) {
+                node = left[node];
+            } else if (weight[node] >= minWeight) {
+                return values[node];
+            } else {
+                node = right[node];
+            }
+        }
+    }
+
+    @Override
+    public SeatAssignment floorValue(long key, long minWeight) {
+        int node = root;
+        int best = NIL;
+        while (node != NIL && maxWeight[node] >= minWeight) {
+            if (key >= keys[node]) {
+                if (weight[node] >= minWeight || maxWeight[left[node]] >= minWeight) {
+                    best = node;
+                }
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        if (best == NIL || weight[best] >= minWeight) {
+            return values[best];
+        }
+
+        node = left[best];
+        while (true) {
+            if (maxWeight[right[node]] >= minWeight) {
+                node = right[node];
+            } else if (weight[node] >= minWeight) {
+                return values[node];
+            } else {
+                node = left[node];
+            }
+        }
+    }
+
+    @Override
+    public SeatAssignment select(int k) {
+        if (k < 0 || k >= size) {
+            return null;
+        }
+        int node = root;
+        while (true) {
+            int leftCount = count[left[node]];
+            if (k < leftCount) {
+                node = left[node];
+            } else if (k == leftCount) {
+                return values[node];
+            } else {
+                k -= leftCount + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    @Override
+    public int rank(long key) {
+        int rank = 0;
+        int node = root;
+        while (node != NIL) {
+            if (key <= keys[node]) {
+                node = left[node];
+            } else {
+                rank += 1 + count[left[node]];
+                node = right[node];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the total weight of slots whose keys are below a bound.
+     *
+     * @param key       the bound
+     * @param inclusive whether a key equal to the bound counts
+     * @return total weight
+     */
+    private long sumBelow(long key, boolean inclusive) {
+        long sum = 0;
+        int node = root;
+        while (node != NIL) {
+            if (key < keys[node] || (key == keys[node] && !inclusive)) {
+                node = left[node];
+            } else {
+                sum += weight[node] + weightSum[left[node]];
+                node = right[node];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumInRange(long lo, long hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        return sumBelow(hi, true) - sumBelow(lo, false);
+    }
+
+    @Override
+    public int countInRange(long lo, long hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        int upper = hi == Long.MAX_VALUE ? size : rank(hi + 1);
+        return upper - rank(lo);
+    }
+
+    @Override
+    public long getWeightSum() {
+        return weightSum[root];
+    }
+
+    @Override
+    public Iterator<SeatAssignment> iterator() {
+        return new Iterator<SeatAssignment>() {
+            private int next = leftmost(root);
+
+            @Override
+            public boolean hasNext() {
+                return next != NIL;
+            }
+
+            @Override
+            public SeatAssignment next() {
+                if (next == NIL) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                if (right[current] != NIL) {
+                    next = leftmost(right[current]);
+                } else {
+                    int child = current;
+                    next = parent[current];
+                    while (next != NIL && child == right[next]) {
+                        child = next;
+                        next = parent[next];
+                    }
+                }
+                return values[current];
+            }
+        };
+    }
+
+    /**
+     * Find the slot with the smallest key in a subtree.
+     *
+     * @param node subtree root; may be NIL
+     * @return leftmost slot, or NIL for an empty subtree
+     */
+    private int leftmost(int node) {
+        if (node == NIL) {
+            return NIL;
+        }
+        while (left[node] != NIL) {
+            node = left[node];
+        }
+        return node;
+    }
+
+    @Override
+    public long maxWeight() {
+        return maxWeight[root];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, next, null);
+        root = NIL;
+        size = 0;
+        next = 1;
+        freeHead = NIL;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    @Override
+    public boolean validateRedBlackTree() {
+        if (root == NIL) {
+            return true;
+        }
+        if (red[root] || red[NIL] || values[NIL] != null || count[NIL] != 0 || weightSum[NIL] != 0) {
+            return false;
+        }
+        return blackHeight(root) != -1;
+    }
+
+    /**
+     * Helper that returns the black height of a subtree, or -1 if any rule is broken below it.
+     *
+     * @param node subtree root
+     * @return black height or -1
+     */
+    private int blackHeight(int node) {
+        if (node == NIL) {
+            return 0;
+        }
+        int l = left[node];
+        int r = right[node];
+        if (red[node] && (red[l] || red[r])) {
+            return -1;
+        }
+        if ((l != NIL && (parent[l] != node || keys[l] >= keys[node]))
+                || (r != NIL && (parent[r] != node || keys[r] <= keys[node]))) {
+            return -1;
+        }
+        if (maxWeight[node] != Math.max(weight[node], Math.max(maxWeight[l], maxWeight[r]))
+                || weightSum[node] != weight[node] + weightSum[l] + weightSum[r]
+                || count[node] != 1 + count[l] + count[r]) {
+            return -1;
+        }
+
+        int leftHeight = blackHeight(l);
+        int rightHeight = blackHeight(r);
+        if (leftHeight == -1 || rightHeight == -1 || leftHeight != rightHeight) {
+            return -1;
+        }
+        return leftHeight + (red[node] ? 0 : 1);
+    }
+}
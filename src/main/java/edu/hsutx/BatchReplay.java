@@ -0,0 +1,389 @@
+package edu.hsutx;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Headless entry point that replays a reservation CSV against a CowboySeatTree at full speed,
+ * with no per-line delay, no console logging per command, and no Swing classes loaded.
+ *
+ * Usage: {@code BatchReplay <csv file> [--arena | --persistent] [--placement <policy>] [--map <output file>]
+ * [--audit <output file>] [--batch <size> [--strict]]
+ * [--wal <log file> [--snapshot <file>] [--snapshot-every <changes>]]}
+ * or {@code BatchReplay --recover --wal <log file> [--snapshot <file>] [--arena | --persistent] [--map <output file>]}
+ *
+ * When the replay finishes it prints the elapsed time, the commands applied per second,
+ * and a summary of the final seat map. With {@code --map} the full seat map is also written
+ * as one {@code start,quantity,owner} line per block in seat order (owner is empty for free blocks).
+ * With {@code --audit} every reservation, cancellation and rejected command is recorded as JSON lines
+ * through an asynchronous {@link EventLog}. With {@code --wal} every change is also appended to a
+ * {@link WriteAheadLog}; {@code --snapshot} adds background snapshots that keep the log short.
+ * {@code --batch} serves runs of consecutive reservations together through
+ * {@link CowboySeatTree#allocateBatch}; {@code --strict} keeps the outcome identical to one at a time.
+ * {@code --placement} picks the {@link CowboySeatTree.Placement} policy, best fit by default.
+ * {@code --recover} rebuilds the seat map from the latest snapshot and log instead of the CSV.
+ */
+public class BatchReplay {
+    static final int STADIUM_SEATS = 999999;
+
+    private final CowboySeatTree seatTree;
+    private final EventLog log;
+    private final WriteAheadLog wal;
+    private Checkpointer checkpointer;
+    private int batchSize = 1;
+    private boolean strictOrder;
+    private long commands;
+    private long allocations;
+    private long cancellations;
+    private long failures;
+
+    /**
+     * Creates a replay over an empty stadium of seats 1 through STADIUM_SEATS.
+     *
+     * @param seatTree An empty seat tree to apply the commands to.
+     */
+    public BatchReplay(CowboySeatTree seatTree) {
+        this(seatTree, EventLog.disabled());
+    }
+
+    /**
+     * Creates a replay over an empty stadium of seats 1 through STADIUM_SEATS that records what it does.
+     *
+     * @param seatTree An empty seat tree to apply the commands to.
+     * @param log      Where to record each change; the caller closes it.
+     */
+    public BatchReplay(CowboySeatTree seatTree, EventLog log) {
+        this(seatTree, log, null);
+    }
+
+    /**
+     * Creates a replay over an empty stadium of seats 1 through STADIUM_SEATS that records what it does
+     * and makes each change durable.
+     *
+     * @param seatTree An empty seat tree to apply the commands to.
+     * @param log      Where to record each change; the caller closes it.
+     * @param wal      Where to append each change, or null; the caller closes it.
+     */
+    public BatchReplay(CowboySeatTree seatTree, EventLog log, WriteAheadLog wal) {
+        this.seatTree = seatTree;
+        this.log = log;
+        this.wal = wal;
+        seatTree.insert(new SeatAssignment(STADIUM_SEATS, 1));
+    }
+
+    /**
+     * Applies one command. Requests that cannot be satisfied are counted as failures
+     * instead of stopping the replay.
+     *
+     * @param command The decoded command.
+     * @return true if the command changed the seat map.
+     * @throws IOException If the change cannot be appended to the write-ahead log.
+     */
+    public boolean apply(ReservationCommand command) throws IOException {
+        commands++;
+        if (command.getType() == ReservationCommand.ADD) {
+            SeatAssignment reservation = command.getTargetSeat() > 0
+                    ? seatTree.allocateNear(command.getName(), command.getSeatsNeeded(), command.getTargetSeat())
+                    : seatTree.allocate(command.getName(), command.getSeatsNeeded(), command.getPreference());
+            if (!allocated(command, reservation)) return false;
+            logged(1);
+            return true;
+        }
+
+        SeatAssignment reservation = seatTree.getReservation(command.getName());
+        if (reservation == null) {
+            log.rejected(command);
+            failures++;
+            return false;
+        }
+        log.released(reservation, seatTree.release(reservation));
+        if (wal != null) wal.logRelease(reservation);
+        logged(1);
+        cancellations++;
+        return true;
+    }
+
+    /**
+     * Records the outcome of an ADD command and appends it to the write-ahead log, if any.
+     * The caller counts the change towards the next snapshot.
+     *
+     * @param command     The command.
+     * @param reservation The reservation made for it, or null if none could be made.
+     * @return true if a reservation was made.
+     * @throws IOException If the change cannot be appended to the write-ahead log.
+     */
+    private boolean allocated(ReservationCommand command, SeatAssignment reservation) throws IOException {
+        if (reservation == null) {
+            log.rejected(command);
+            failures++;
+            return false;
+        }
+        log.allocated(reservation, command.getPreference());
+        if (wal != null) wal.logAllocate(reservation);
+        allocations++;
+        return true;
+    }
+
+    /**
+     * Applies runs of consecutive ADD commands through {@link CowboySeatTree#allocateBatch}
+     * instead of one at a time. A DELETE, or a full batch, flushes the run first.
+     *
+     * @param batchSize   The most ADD commands to serve together; 1 turns batching off.
+     * @param strictOrder Whether each batch must have exactly the outcome of serving it in order.
+     */
+    public void setBatching(int batchSize, boolean strictOrder) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+        this.strictOrder = strictOrder;
+    }
+
+    /**
+     * Serves a run of ADD commands together and records each outcome in order.
+     *
+     * @param batch The commands.
+     * @param count How many of them to serve.
+     * @throws IOException If a change cannot be appended to the write-ahead log.
+     */
+    private void applyBatch(ReservationCommand[] batch, int count) throws IOException {
+        SeatAssignment[] reservations = seatTree.allocateBatch(batch, count, strictOrder);
+
+        // The tree already holds the whole batch, so a snapshot is only consistent with the log
+        // once every reservation in it has been logged
+        int changes = 0;
+        for (int i = 0; i < count; i++) {
+            commands++;
+            if (allocated(batch[i], reservations[i])) changes++;
+        }
+        logged(changes);
+    }
+
+    /**
+     * Lets the checkpointer, if any, count changes that were just logged.
+     *
+     * @param changes How many changes were logged.
+     * @throws IOException If a background snapshot failed.
+     */
+    private void logged(int changes) throws IOException {
+        if (checkpointer != null && wal != null && changes > 0) {
+            checkpointer.afterChanges(changes);
+        }
+    }
+
+    /**
+     * Takes background snapshots as the replay goes. Requires a write-ahead log.
+     *
+     * @param checkpointer The checkpointer for this replay's tree and log; the caller closes it.
+     */
+    public void setCheckpointer(Checkpointer checkpointer) {
+        this.checkpointer = checkpointer;
+    }
+
+    /**
+     * Applies every command of a log until it is exhausted.
+     *
+     * @param reader The command stream.
+     * @throws IOException If reading fails or a line is malformed.
+     */
+    public void replay(ReservationCommandReader reader) throws IOException {
+        if (batchSize == 1) {
+            ReservationCommand command = new ReservationCommand();
+            while (reader.next(command)) {
+                apply(command);
+            }
+            return;
+        }
+
+        ReservationCommand[] batch = new ReservationCommand[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = new ReservationCommand();
+        }
+        int pending = 0;
+        while (reader.next(batch[pending])) {
+            if (batch[pending].getType() == ReservationCommand.ADD) {
+                if (++pending == batchSize) {
+                    applyBatch(batch, pending);
+                    pending = 0;
+                }
+            } else {
+                applyBatch(batch, pending);
+                apply(batch[pending]);
+                pending = 0;
+            }
+        }
+        applyBatch(batch, pending);
+    }
+
+    /**
+     * Writes every block of a seat map, in seat order.
+     *
+     * @param seatTree The seat map.
+     * @param out      Where to write the {@code start,quantity,owner} lines.
+     */
+    public static void writeSeatMap(CowboySeatTree seatTree, PrintStream out) {
+        Iterator<SeatAssignment> blocks = seatTree.blocks();
+        while (blocks.hasNext()) {
+            SeatAssignment block = blocks.next();
+            out.println(block.getSeatStartIndex() + "," + block.getSeatQuantity() + ","
+                    + (block.getOwner() == null ? "" : block.getOwner()));
+        }
+    }
+
+    public long getCommandCount() {
+        return commands;
+    }
+
+    public long getAllocationCount() {
+        return allocations;
+    }
+
+    public long getCancellationCount() {
+        return cancellations;
+    }
+
+    public long getFailureCount() {
+        return failures;
+    }
+
+    /**
+     * Prints the command-line usage and exits.
+     */
+    private static void usage() {
+        System.err.println("Usage: BatchReplay <csv file> [--arena | --persistent] [--placement <policy>] [--map <output file>]");
+        System.err.println("                   [--audit <output file>] [--batch <size> [--strict]]");
+        System.err.println("                   [--wal <log file> [--snapshot <file>] [--snapshot-every <changes>]]");
+        System.err.println("       BatchReplay --recover --wal <log file> [--snapshot <file>] [--arena | --persistent] [--map <output file>]");
+        System.exit(2);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String filePath = null;
+        String mapPath = null;
+        String auditPath = null;
+        String walPath = null;
+        String snapshotPath = null;
+        int snapshotEvery = 5000;
+        boolean recover = false;
+        int batchSize = 1;
+        boolean strictOrder = false;
+        CowboySeatTree.Backend backend = CowboySeatTree.Backend.NODES;
+        CowboySeatTree.Placement placement = CowboySeatTree.Placement.BEST_FIT;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--arena")) {
+                backend = CowboySeatTree.Backend.ARENA;
+            } else if (args[i].equals("--persistent")) {
+                backend = CowboySeatTree.Backend.PERSISTENT;
+            } else if (args[i].equals("--placement") && i + 1 < args.length) {
+                placement = CowboySeatTree.Placement.valueOf(args[++i].toUpperCase().replace('-', '_'));
+            } else if (args[i].equals("--map") && i + 1 < args.length) {
+                mapPath = args[++i];
+            } else if (args[i].equals("--audit") && i + 1 < args.length) {
+                auditPath = args[++i];
+            } else if (args[i].equals("--wal") && i + 1 < args.length) {
+                walPath = args[++i];
+            } else if (args[i].equals("--snapshot") && i + 1 < args.length) {
+                snapshotPath = args[++i];
+            } else if (args[i].equals("--snapshot-every") && i + 1 < args.length) {
+                snapshotEvery = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--batch") && i + 1 < args.length) {
+                batchSize = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--strict")) {
+                strictOrder = true;
+            } else if (args[i].equals("--recover")) {
+                recover = true;
+            } else if (args[i].startsWith("--")) {
+                // A mistyped flag, or a known one missing its value
+                System.err.println("Unknown option or missing value: " + args[i]);
+                usage();
+            } else {
+                filePath = args[i];
+            }
+        }
+        if (recover ? walPath == null : filePath == null || (snapshotPath != null && walPath == null)) {
+            usage();
+        }
+
+        CowboySeatTree seatTree = new CowboySeatTree(backend);
+        seatTree.setPlacement(placement);
+        WriteAheadLog wal = walPath == null ? null : new WriteAheadLog(Path.of(walPath));
+        Path snapshotFile = snapshotPath == null ? null : Path.of(snapshotPath);
+        if (recover) {
+            long startTime = System.nanoTime();
+            long applied;
+            if (snapshotFile != null) {
+                applied = Checkpointer.recover(seatTree, wal, snapshotFile, STADIUM_SEATS);
+            } else {
+                seatTree.insert(new SeatAssignment(STADIUM_SEATS, 1));
+                applied = wal.replay(seatTree, 0);
+            }
+            long elapsed = System.nanoTime() - startTime;
+            wal.close();
+            System.out.printf("Recovered %d log records in %.3f s using the %s backend%n", applied, elapsed / 1e9, backend);
+            printSeatMap(seatTree, mapPath);
+            return;
+        }
+        if (wal != null && (wal.getLastLsn() > 0 || (snapshotFile != null && Files.exists(snapshotFile)))) {
+            System.err.println(walPath + " already holds reservations; use --recover to rebuild from it.");
+            System.exit(1);
+        }
+
+        EventLog log = auditPath == null ? EventLog.disabled()
+                : new EventLog(new JsonLinesSink(new FileOutputStream(auditPath)), EventLog.Level.INFO);
+        BatchReplay replay = new BatchReplay(seatTree, log, wal);
+        replay.setBatching(batchSize, strictOrder);
+        Checkpointer checkpointer = null;
+        if (snapshotFile != null) {
+            checkpointer = new Checkpointer(seatTree, wal, snapshotFile, snapshotEvery);
+            replay.setCheckpointer(checkpointer);
+        }
+        long startTime = System.nanoTime();
+        try (ReservationCommandReader reader = new ReservationCommandReader(Path.of(filePath))) {
+            replay.replay(reader);
+        }
+        if (checkpointer != null) {
+            checkpointer.close();
+        }
+        if (wal != null) {
+            wal.close();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        log.close();
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("Applied %d commands in %.3f s (%.0f ops/sec) using the %s backend%n",
+                replay.getCommandCount(), seconds, replay.getCommandCount() / seconds, backend);
+        System.out.printf("  %d reservations made, %d cancelled, %d failed%n",
+                replay.getAllocationCount(), replay.getCancellationCount(), replay.getFailureCount());
+        printSeatMap(seatTree, mapPath);
+        if (auditPath != null) {
+            System.out.println("Audit trail written to " + auditPath);
+        }
+    }
+
+    /**
+     * Prints the seat map summary and, if asked, writes the full map.
+     *
+     * @param seatTree The seat map.
+     * @param mapPath  Where to write the full map, or null.
+     * @throws IOException If the map cannot be written.
+     */
+    private static void printSeatMap(CowboySeatTree seatTree, String mapPath) throws IOException {
+        System.out.printf("Final seat map: %d reservations holding %d seats, %d free blocks holding %d seats%n",
+                seatTree.getReservationCount(), seatTree.getReservedSeatCount(),
+                seatTree.getFreeBlockCount(), seatTree.getFreeSeatCount());
+        System.out.println("  Largest free block: " + seatTree.getLargestUnassignedBlock() + " seats");
+
+        if (mapPath != null) {
+            try (PrintStream out = new PrintStream(mapPath, StandardCharsets.UTF_8)) {
+                writeSeatMap(seatTree, out);
+            }
+            System.out.println("Seat map written to " + mapPath);
+        }
+    }
+}
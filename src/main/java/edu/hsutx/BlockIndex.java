@@ -0,0 +1,152 @@
+package edu.hsutx;
+
+/**
+ * An ordered index of SeatAssignment blocks keyed by a long, as used inside {@link CowboySeatTree}.
+ * Every implementation is a Red-Black Tree whose nodes also track the size, the seat total,
+ * and the largest block (in seats) of their subtree. Iterating an index visits its blocks in key order.
+ */
+interface BlockIndex extends Iterable<SeatAssignment> {
+
+    /**
+     * Insert a block. Duplicate keys are ignored.
+     *
+     * @param key   key for this block
+     * @param block the block
+     */
+    void insert(long key, SeatAssignment block);
+
+    /**
+     * Build an empty index from blocks whose keys are already in strictly increasing order, in O(n).
+     *
+     * @param keys   keys in strictly increasing order
+     * @param blocks block for each key
+     * @param count  number of entries to load from the arrays
+     */
+    void bulkLoad(long[] keys, SeatAssignment[] blocks, int count);
+
+    /**
+     * Remove every block, leaving an empty index ready for {@link #bulkLoad}.
+     */
+    void clear();
+
+    /**
+     * Delete a block.
+     *
+     * @param key of block to remove
+     * @return the removed block, or null if not found
+     */
+    SeatAssignment delete(long key);
+
+    /**
+     * Returns the block stored under a key.
+     *
+     * @param key of block
+     * @return the block, or null if not found
+     */
+    SeatAssignment getValue(long key);
+
+    /**
+     * Returns the block with the smallest key greater than or equal to the given key.
+     *
+     * @param key lower bound
+     * @return the block, or null if every key is smaller
+     */
+    SeatAssignment ceilingValue(long key);
+
+    /**
+     * Returns the block with the largest key less than or equal to the given key.
+     *
+     * @param key upper bound
+     * @return the block, or null if every key is larger
+     */
+    SeatAssignment floorValue(long key);
+
+    /**
+     * Returns the block with the smallest key greater than or equal to the given key among blocks
+     * of at least minWeight seats, using the largest-block augmentation to skip subtrees, in O(log n).
+     *
+     * @param key       lower bound
+     * @param minWeight smallest block to accept, in seats
+     * @return the block, or null if none at or after key is large enough
+     */
+    SeatAssignment ceilingValue(long key, long minWeight);
+
+    /**
+     * Returns the block with the largest key less than or equal to the given key among blocks
+     * of at least minWeight seats, in O(log n).
+     *
+     * @param key       upper bound
+     * @param minWeight smallest block to accept, in seats
+     * @return the block, or null if none at or before key is large enough
+     */
+    SeatAssignment floorValue(long key, long minWeight);
+
+    /**
+     * Returns the block with exactly k smaller keys.
+     *
+     * @param k zero-based position in key order
+     * @return the block, or null if k is out of range
+     */
+    SeatAssignment select(int k);
+
+    /**
+     * Returns the number of keys smaller than the given key.
+     *
+     * @param key any key, present or not
+     * @return zero-based position the key has or would have
+     */
+    int rank(long key);
+
+    /**
+     * Returns the number of keys in a closed range.
+     *
+     * @param lo smallest key to include
+     * @param hi largest key to include
+     * @return count, or 0 if the range is empty
+     */
+    int countInRange(long lo, long hi);
+
+    /**
+     * Returns the total seats of blocks whose keys fall in a closed range.
+     *
+     * @param lo smallest key to include
+     * @param hi largest key to include
+     * @return seat total, or 0 if the range is empty
+     */
+    long sumInRange(long lo, long hi);
+
+    /**
+     * Returns the total seats of every block in the index.
+     *
+     * @return seat total
+     */
+    long getWeightSum();
+
+    /**
+     * Returns the size of the largest block in the index.
+     *
+     * @return largest seat quantity, or 0 if empty
+     */
+    long maxWeight();
+
+    /**
+     * Get number of blocks.
+     *
+     * @return size
+     */
+    int getSize();
+
+    /**
+     * Returns whether the index is empty or not.
+     *
+     * @return true if empty, false if not
+     */
+    boolean isEmpty();
+
+    /**
+     * Checks every Red-Black property and the largest-block augmentation.
+     *
+     * @return true if valid
+     */
+    boolean validateRedBlackTree();
+}
@@ -0,0 +1,132 @@
+package edu.hsutx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes periodic snapshots of a seat tree in the background and trims the write-ahead log behind them,
+ * so that a restart only loads the latest snapshot and replays the short log tail after it.
+ *
+ * The thread that changes the tree calls {@link #afterChange()} once it has logged a change, or
+ * {@link #afterChanges(int)} once for a batch of them. Every
+ * {@code interval} changes this captures a {@link SeatMapSnapshot} on that thread (O(1) with the
+ * persistent backend, no I/O) and hands it to a background thread, which writes the file and then
+ * truncates the log through the snapshot's LSN. Reservations keep flowing while it writes; if a
+ * snapshot is still being written when the next one is due, the next one waits for a later change.
+ */
+public class Checkpointer implements Closeable {
+    private final CowboySeatTree seatTree;
+    private final WriteAheadLog wal;
+    private final Path snapshotFile;
+    private final int interval;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int changesSinceSnapshot;
+    private Future<?> inFlight;
+    private volatile IOException failure;
+
+    /**
+     * Creates a checkpointer.
+     *
+     * @param seatTree     The tree to snapshot.
+     * @param wal          The log the tree's changes are appended to.
+     * @param snapshotFile Where to keep the latest snapshot.
+     * @param interval     How many changes to allow between snapshots.
+     */
+    public Checkpointer(CowboySeatTree seatTree, WriteAheadLog wal, Path snapshotFile, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.seatTree = seatTree;
+        this.wal = wal;
+        this.snapshotFile = snapshotFile;
+        this.interval = interval;
+    }
+
+    /**
+     * Restores a tree from the latest snapshot, if there is one, and the log records after it.
+     *
+     * @param seatTree     An empty tree to restore into.
+     * @param wal          The log.
+     * @param snapshotFile The snapshot file, which may not exist yet.
+     * @param totalSeats   Stadium size to start from when there is no snapshot.
+     * @return The number of log records replayed.
+     * @throws IOException If the snapshot or the log cannot be read.
+     */
+    public static long recover(CowboySeatTree seatTree, WriteAheadLog wal, Path snapshotFile, int totalSeats) throws IOException {
+        long lsn = 0;
+        if (Files.exists(snapshotFile)) {
+            lsn = SeatMapSnapshot.load(snapshotFile, seatTree);
+        } else {
+            seatTree.insert(new SeatAssignment(totalSeats, 1));
+        }
+        return wal.replay(seatTree, lsn);
+    }
+
+    /**
+     * Counts a logged change and starts a snapshot if one is due.
+     *
+     * @throws IOException If an earlier background snapshot failed.
+     */
+    public void afterChange() throws IOException {
+        afterChanges(1);
+    }
+
+    /**
+     * Counts several logged changes at once, as after a batch, and starts a snapshot if one is due.
+     *
+     * @param changes The number of changes logged.
+     * @throws IOException If an earlier background snapshot failed.
+     */
+    public void afterChanges(int changes) throws IOException {
+        if (failure != null) throw failure;
+        changesSinceSnapshot += changes;
+        if (changesSinceSnapshot < interval || (inFlight != null && !inFlight.isDone())) return;
+        snapshot();
+    }
+
+    /**
+     * Starts a snapshot now, unless one is already being written.
+     *
+     * @return true if a snapshot was started.
+     */
+    public boolean snapshot() {
+        if (inFlight != null && !inFlight.isDone()) return false;
+        changesSinceSnapshot = 0;
+        SeatMapSnapshot snapshot = SeatMapSnapshot.capture(seatTree, wal.getLastLsn());
+        inFlight = writer.submit(() -> {
+            try {
+                snapshot.writeTo(snapshotFile);
+                wal.truncateThrough(snapshot.getLsn());
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Waits for any snapshot being written and stops the background thread.
+     *
+     * @throws IOException If a background snapshot failed.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) throw failure;
+    }
+}
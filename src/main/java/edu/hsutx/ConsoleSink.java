@@ -0,0 +1,72 @@
+package edu.hsutx;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Writes events as readable lines, in the style of the controller's original console output.
+ */
+public class ConsoleSink implements EventSink {
+    private final PrintStream out;
+    private final StringBuilder line = new StringBuilder(160);
+
+    /**
+     * Creates a sink that writes to a stream. The stream is flushed but never closed.
+     *
+     * @param out Where to print, usually System.out.
+     */
+    public ConsoleSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(LogEvent event) {
+        line.setLength(0);
+        if (event.getLevel() == EventLog.Level.ERROR) {
+            line.append("Error: ");
+        }
+        switch (event.getKind()) {
+            case MESSAGE:
+                line.append(event.getMessage());
+                break;
+            case COMMAND:
+                line.append("Read ").append(event.getCommand()).append(',').append(event.getOwner());
+                if (event.getCommand() == ReservationCommand.ADD) {
+                    line.append(',').append(event.getSeats()).append(',').append(event.getPreference());
+                    if (event.getTargetSeat() > 0) line.append(',').append(event.getTargetSeat());
+                }
+                break;
+            case ALLOCATED:
+                line.append("Reserved ").append(event.getSeats()).append(" seats for ").append(event.getOwner())
+                        .append(" starting at ").append(event.getStart());
+                break;
+            case RELEASED:
+                line.append("Released ").append(event.getSeats()).append(" seats for ").append(event.getOwner())
+                        .append(" starting at ").append(event.getStart())
+                        .append(", merged into empty block of ").append(event.getMergedSeats())
+                        .append(" starting at ").append(event.getMergedStart());
+                break;
+            case REJECTED:
+                if (event.getCommand() == ReservationCommand.ADD) {
+                    line.append("could not add ").append(event.getSeats()).append(" seats for ").append(event.getOwner());
+                    if (event.getTargetSeat() > 0) line.append(" near seat ").append(event.getTargetSeat());
+                    line.append(" -- no sufficient free block found.");
+                } else {
+                    line.append("could not delete reservation for ").append(event.getOwner())
+                            .append(" -- no reservation found.");
+                }
+                break;
+        }
+        out.append(line).append(System.lineSeparator());
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
@@ -1,75 +1,1110 @@
 package edu.hsutx;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
- * CowboySeatTree is a Red-Black Tree that stores SeatAssignment objects as the values for the tree nodes.
- * It extends the generic RedBlackTree class and specializes it for the SeatAssignment value type.
+ * CowboySeatTree tracks every SeatAssignment in the stadium behind one facade.
+ * Internally it keeps long-keyed Red-Black Trees:
+ * the free-block tree holds only unassigned blocks, ordered by their packed (quantity, start) key,
+ * a second free-block index orders the same blocks by starting seat for neighbor lookups,
+ * and the reservation index holds only owned blocks, ordered by starting seat.
+ *
+ * Free-block searches therefore never visit a reservation, and the free-block tree only grows
+ * with the number of fragments rather than the number of bookings.
+ * Released reservations are merged with the free blocks on either side, so adjacent free seats
+ * always form a single block.
  *
- * This class will also include additional methods to search for specific seat assignment blocks.
+ * The trees can be built from node objects (the default) or from the array-backed
+ * {@link ArenaBlockTree}, which holds far more blocks per GB and allocates no nodes once warm,
+ * or from the copy-on-write {@link PersistentLongRedBlackTree}, whose immutable versions other
+ * threads can read while the seat map keeps changing.
  */
-public class CowboySeatTree extends RedBlackTree<SeatAssignment> {
+public class CowboySeatTree {
+
+    /**
+     * Storage used for the internal trees.
+     */
+    public enum Backend {
+        /** One LongRedBlackTree node object per block. */
+        NODES,
+        /** Parallel primitive arrays with int links and slot reuse. */
+        ARENA,
+        /** Immutable path-copied nodes; every update publishes a new version. */
+        PERSISTENT
+    }
+
+    /**
+     * How {@link #allocate} chooses a free block and where in that block the party sits.
+     * Every policy is answered with one or two O(log n) queries on the free-block tree.
+     */
+    public enum Placement {
+        /** The smallest block that fits; the party sits at its preference within the block. */
+        BEST_FIT,
+        /** The largest free block, so the remainder stays as large as possible; the party sits at its preference. */
+        WORST_FIT,
+        /** The smallest block that fits; the party sits at the end of the block nearer its preference, leaving one fragment. */
+        PREFERENCE_BEST_FIT,
+        /**
+         * An exact fit if there is one, otherwise the smallest block that leaves at least the minimum fragment
+         * (falling back to the smallest block that fits); the party sits at the end nearer its preference.
+         */
+        MIN_FRAGMENT
+    }
+
+    /** Default smallest leftover worth keeping under {@link Placement#MIN_FRAGMENT}. */
+    public static final int DEFAULT_MINIMUM_FRAGMENT = 8;
+
+    /**
+     * A LongRedBlackTree of SeatAssignments whose maxWeight is the largest block in each subtree.
+     */
+    static class BlockTree extends LongRedBlackTree<SeatAssignment> implements BlockIndex {
+        @Override
+        protected long weight(SeatAssignment seatAssignment) {
+            return seatAssignment.getSeatQuantity();
+        }
+
+        @Override
+        public SeatAssignment ceilingValue(long key) {
+            Node node = ceiling(key);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public SeatAssignment floorValue(long key) {
+            Node node = floor(key);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public SeatAssignment ceilingValue(long key, long minWeight) {
+            Node node = ceiling(key, minWeight);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public SeatAssignment floorValue(long key, long minWeight) {
+            Node node = floor(key, minWeight);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public long maxWeight() {
+            return root == null ? 0 : root.maxWeight;
+        }
+    }
+
+    /**
+     * A PersistentLongRedBlackTree of SeatAssignments whose maxWeight is the largest block in each subtree.
+     */
+    static class PersistentBlockTree extends PersistentLongRedBlackTree<SeatAssignment> implements BlockIndex {
+        @Override
+        protected long weight(SeatAssignment seatAssignment) {
+            return seatAssignment.getSeatQuantity();
+        }
+    }
+
+    private final BlockIndex freeBlocks;     // unassigned, keyed by packed key
+    private final BlockIndex freeByStart;    // unassigned, keyed by start seat
+    private final BlockIndex reservations;   // assigned, keyed by start seat
+    private final OwnerIndex owners = new OwnerIndex();
+    private Placement placement = Placement.BEST_FIT;
+    private int minimumFragment = DEFAULT_MINIMUM_FRAGMENT;
+    private SeatChangeFeed changeFeed;
+    private long lastSequence;  // booking sequence given to the newest reservation
+
+    /**
+     * Creates an empty seat tree backed by node objects.
+     */
+    public CowboySeatTree() {
+        this(Backend.NODES);
+    }
 
     /**
-     * Inserts a new SeatAssignment into the tree using the SeatAssignment's key as the search key.
+     * Creates an empty seat tree with the given storage backend.
+     *
+     * @param backend How the internal trees store their nodes.
+     */
+    public CowboySeatTree(Backend backend) {
+        if (backend == Backend.ARENA) {
+            freeBlocks = new ArenaBlockTree();
+            freeByStart = new ArenaBlockTree();
+            reservations = new ArenaBlockTree();
+        } else if (backend == Backend.PERSISTENT) {
+            freeBlocks = new PersistentBlockTree();
+            freeByStart = new PersistentBlockTree();
+            reservations = new PersistentBlockTree();
+        } else {
+            freeBlocks = new BlockTree();
+            freeByStart = new BlockTree();
+            reservations = new BlockTree();
+        }
+    }
+
+    /**
+     * Inserts a new SeatAssignment into the free-block tree if it is unassigned,
+     * or into the reservation index if it has an owner.
      *
      * @param seatAssignment The SeatAssignment object to insert into the tree.
      */
     public void insert(SeatAssignment seatAssignment) {
-        String key = seatAssignment.getKey();  // Get the key from SeatAssignment (for tree ordering)
-        super.insert(key, seatAssignment);     // Use the RedBlackTree's insert method
+        if (seatAssignment.getOwner() == null) {
+            addFree(seatAssignment);
+        } else {
+            reservations.insert(seatAssignment.getSeatStartIndex(), seatAssignment);
+            indexOwner(seatAssignment);
+            published(seatAssignment, true);
+        }
+    }
+
+    /**
+     * Loads an empty seat tree from a seat map in one pass instead of one insert at a time.
+     * Adjacent free blocks in the input are merged as they are read.
+     *
+     * @param blocks Every block in the seat map, in increasing order of starting seat, not overlapping.
+     * @throws IllegalStateException    if the tree is not empty
+     * @throws IllegalArgumentException if the blocks are out of order or overlap
+     */
+    public void load(Iterator<SeatAssignment> blocks) {
+        if (!isEmpty()) {
+            throw new IllegalStateException("load requires an empty seat tree");
+        }
+        rebuild(blocks, true);
+        if (changeFeed != null) changeFeed.reset(getFreeBlockVersion(), getReservationVersion());
+    }
+
+    /**
+     * Replaces every index with one built from a seat map in a single pass.
+     * Adjacent free blocks in the input are merged as they are read.
+     *
+     * @param blocks      Every block in the seat map, in increasing order of starting seat, not overlapping.
+     *                    The blocks may be streamed from the current indexes; they are all read first.
+     * @param indexOwners Whether to index each reservation under its owner, in booking sequence order.
+     * @throws IllegalArgumentException if the blocks are out of order or overlap
+     */
+    private void rebuild(Iterator<SeatAssignment> blocks, boolean indexOwners) {
+        SeatAssignment[] free = new SeatAssignment[16];
+        int freeCount = 0;
+        long[] reservedStarts = new long[16];
+        SeatAssignment[] reserved = new SeatAssignment[16];
+        int reservedCount = 0;
+
+        int nextSeat = Integer.MIN_VALUE;
+        SeatAssignment pending = null;  // free block that may still grow
+        while (blocks.hasNext()) {
+            SeatAssignment block = blocks.next();
+            if (block.getSeatStartIndex() < nextSeat) {
+                throw new IllegalArgumentException("block " + block.getKey() + " is out of order or overlaps");
+            }
+            if (block.getOwner() == null) {
+                if (pending != null && pending.getSeatStartIndex() + pending.getSeatQuantity() == block.getSeatStartIndex()) {
+                    pending = new SeatAssignment(pending.getSeatQuantity() + block.getSeatQuantity(), pending.getSeatStartIndex());
+                } else {
+                    if (pending != null) {
+                        if (freeCount == free.length) {
+                            free = Arrays.copyOf(free, freeCount * 2);
+                        }
+                        free[freeCount++] = pending;
+                    }
+                    pending = block;
+                }
+            } else {
+                if (reservedCount == reserved.length) {
+                    reserved = Arrays.copyOf(reserved, reservedCount * 2);
+                    reservedStarts = Arrays.copyOf(reservedStarts, reservedCount * 2);
+                }
+                reservedStarts[reservedCount] = block.getSeatStartIndex();
+                reserved[reservedCount++] = block;
+            }
+            nextSeat = block.getSeatStartIndex() + block.getSeatQuantity();
+        }
+        if (pending != null) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount + 1);
+            }
+            free[freeCount++] = pending;
+        }
+
+        // By start seat the free blocks are already sorted. By size they need one primitive sort:
+        // since index order is start order, (quantity, index) sorts exactly like (quantity, start).
+        long[] freeStarts = new long[freeCount];
+        long[] order = new long[freeCount];
+        for (int i = 0; i < freeCount; i++) {
+            freeStarts[i] = free[i].getSeatStartIndex();
+            order[i] = ((long) free[i].getSeatQuantity() << 32) | i;
+        }
+        Arrays.sort(order);
+        long[] freeKeys = new long[freeCount];
+        SeatAssignment[] bySize = new SeatAssignment[freeCount];
+        for (int i = 0; i < freeCount; i++) {
+            bySize[i] = free[(int) order[i]];
+            freeKeys[i] = bySize[i].getPackedKey();
+        }
+
+        freeByStart.clear();
+        freeBlocks.clear();
+        reservations.clear();
+        freeByStart.bulkLoad(freeStarts, free, freeCount);
+        freeBlocks.bulkLoad(freeKeys, bySize, freeCount);
+        reservations.bulkLoad(reservedStarts, reserved, reservedCount);
+
+        if (indexOwners) {
+            // Index in booking order, not seat order, so each owner's latest booking is the same as before
+            SeatAssignment[] byBooking = Arrays.copyOf(reserved, reservedCount);
+            Arrays.sort(byBooking, Comparator.comparingLong(SeatAssignment::getSequence));
+            for (SeatAssignment reservation : byBooking) {
+                indexOwner(reservation);
+            }
+        }
+    }
+
+    /**
+     * Records a reservation as its owner's latest, giving it the next booking sequence unless it
+     * already carries one from a snapshot.
+     *
+     * @param reservation The reservation, already in the reservation index.
+     */
+    private void indexOwner(SeatAssignment reservation) {
+        if (reservation.getSequence() == 0) {
+            reservation.setSequence(++lastSequence);
+        } else {
+            lastSequence = Math.max(lastSequence, reservation.getSequence());
+        }
+        owners.add(reservation);
+    }
+
+    /**
+     * Iterates over every block, free and reserved, in increasing order of starting seat.
+     * The tree must not be modified while iterating.
+     *
+     * @return An iterator over the seat map.
+     */
+    public Iterator<SeatAssignment> blocks() {
+        return mergeByStart(freeByStart.iterator(), reservations.iterator());
+    }
+
+    /**
+     * Freezes the seat map as it is now. The result can be iterated, in seat order, on any thread
+     * and is not affected by later changes. With the persistent backend this is O(1), since it only
+     * keeps the current versions of the trees; other backends copy the block references.
+     *
+     * @return The frozen seat map.
+     */
+    public Iterable<SeatAssignment> freezeBlocks() {
+        if (freeByStart instanceof PersistentBlockTree) {
+            PersistentLongRedBlackTree.Node<SeatAssignment> free = ((PersistentBlockTree) freeByStart).getRoot();
+            PersistentLongRedBlackTree.Node<SeatAssignment> reserved = ((PersistentBlockTree) reservations).getRoot();
+            return () -> mergeByStart(PersistentLongRedBlackTree.values(free), PersistentLongRedBlackTree.values(reserved));
+        }
+        ArrayList<SeatAssignment> copy = new ArrayList<>(getSize());
+        blocks().forEachRemaining(copy::add);
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Merges free and reserved blocks, each already in seat order, into one seat-order stream.
+     *
+     * @param free     Free blocks by starting seat.
+     * @param reserved Reservations by starting seat.
+     * @return The merged iterator.
+     */
+    private static Iterator<SeatAssignment> mergeByStart(Iterator<SeatAssignment> free, Iterator<SeatAssignment> reserved) {
+        return new Iterator<SeatAssignment>() {
+            private SeatAssignment nextFree = free.hasNext() ? free.next() : null;
+            private SeatAssignment nextReserved = reserved.hasNext() ? reserved.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFree != null || nextReserved != null;
+            }
+
+            @Override
+            public SeatAssignment next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                SeatAssignment block;
+                if (nextReserved == null
+                        || (nextFree != null && nextFree.getSeatStartIndex() < nextReserved.getSeatStartIndex())) {
+                    block = nextFree;
+                    nextFree = free.hasNext() ? free.next() : null;
+                } else {
+                    block = nextReserved;
+                    nextReserved = reserved.hasNext() ? reserved.next() : null;
+                }
+                return block;
+            }
+        };
     }
 
     /**
-     * Deletes a SeatAssignment from the tree by its key.
+     * Deletes a SeatAssignment from whichever structure holds it.
      *
      * @param seatAssignment The SeatAssignment object to remove from the tree.
      */
     public void delete(SeatAssignment seatAssignment) {
-        String key = seatAssignment.getKey();  // Get the key from SeatAssignment
-        super.delete(key);                     // Use the RedBlackTree's delete method
+        if (seatAssignment.getOwner() == null) {
+            SeatAssignment stored = freeBlocks.getValue(seatAssignment.getPackedKey());
+            if (stored != null) removeFree(stored);
+            return;
+        }
+
+        SeatAssignment stored = removeReservation(seatAssignment);
+        if (stored == null) {
+            return;
+        }
+        owners.remove(stored);
+        published(stored, false);
+    }
+
+    /**
+     * Reserves seats for an owner using this tree's placement policy, which is best fit unless
+     * {@link #setPlacement} changed it. Whatever is left of the chosen block stays free.
+     *
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats requested.
+     * @param preference  Where in the free block to sit, from 0 (front) to 100 (back).
+     *                    Values outside that range are clamped so the party stays inside the block.
+     * @return The new reservation, or null if seatsNeeded is not positive or no free block is large enough.
+     */
+    public SeatAssignment allocate(String owner, int seatsNeeded, int preference) {
+        return allocate(owner, seatsNeeded, preference, placement);
+    }
+
+    /**
+     * Reserves seats for an owner using a given placement policy.
+     *
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats requested.
+     * @param preference  Where in the free block to sit, from 0 (front) to 100 (back).
+     * @param placement   How to choose the block and the position within it.
+     * @return The new reservation, or null if seatsNeeded is not positive or no free block is large enough.
+     */
+    public SeatAssignment allocate(String owner, int seatsNeeded, int preference, Placement placement) {
+        if (seatsNeeded < 1) return null;
+        SeatAssignment emptyBlock;
+        switch (placement) {
+            case WORST_FIT:
+                emptyBlock = getLargestUnassignedBlock() < seatsNeeded ? null : getKthLargestFreeBlock(1);
+                break;
+            case MIN_FRAGMENT:
+                emptyBlock = getUnassignedBlockOverThreshold(seatsNeeded);
+                if (emptyBlock != null && emptyBlock.getSeatQuantity() != seatsNeeded
+                        && emptyBlock.getSeatQuantity() - seatsNeeded < minimumFragment) {
+                    SeatAssignment roomier = getUnassignedBlockOverThreshold(seatsNeeded + minimumFragment);
+                    if (roomier != null) emptyBlock = roomier;
+                }
+                break;
+            default:
+                emptyBlock = getUnassignedBlockOverThreshold(seatsNeeded);
+        }
+        if (emptyBlock == null) return null;
+
+        return carve(emptyBlock, owner, seatsNeeded, placeInBlock(emptyBlock, seatsNeeded, preference, placement));
+    }
+
+    /**
+     * Works out where a party sits inside the free block a placement policy chose.
+     *
+     * @param emptyBlock  The free block, which holds at least seatsNeeded seats.
+     * @param seatsNeeded The number of seats.
+     * @param preference  Where in the block to sit, from 0 (front) to 100 (back).
+     * @param placement   The placement policy.
+     * @return The party's first seat.
+     */
+    private static int placeInBlock(SeatAssignment emptyBlock, int seatsNeeded, int preference, Placement placement) {
+        int openSeats = emptyBlock.getSeatQuantity();
+        if (placement == Placement.BEST_FIT || placement == Placement.WORST_FIT) {
+            return (int) ((openSeats - seatsNeeded) * (clampPreference(preference) / 100.0)) + emptyBlock.getSeatStartIndex();
+        }
+        return clampPreference(preference) < 50 ? emptyBlock.getSeatStartIndex()
+                : emptyBlock.getSeatStartIndex() + openSeats - seatsNeeded;
+    }
+
+    /**
+     * Serves a burst of reservation requests together.
+     *
+     * With strictOrder the requests are served one at a time in the order given, with exactly the
+     * outcome of calling {@link #allocate(String, int, int)} or {@link #allocateNear} for each.
+     *
+     * Otherwise, under the best-fit policies, the requests are matched smallest first in one sweep,
+     * without changing the tree: each takes the smallest space that fits, either what is left of a
+     * block opened earlier in the batch or a fresh free block found with one ceiling search. Parties
+     * that prefer the front of a block are packed from its first seat and the rest from its last, so
+     * each opened block is split once, into its parties and one leftover, however many parties share
+     * it. The splits are then applied together; a batch with more parties than the tree has blocks
+     * rebuilds the indexes in one linear pass instead. Requests with a target seat, requests the sweep could not
+     * place, and every request under the other policies are then served one at a time. Seats are
+     * never double-booked, but the result can differ from serial processing.
+     *
+     * @param requests    ADD commands; only the first count are used.
+     * @param count       The number of requests.
+     * @param strictOrder Whether the result must match serving the requests one by one, in order.
+     * @return The new reservation for each request at the same index, or null where none could be made.
+     */
+    public SeatAssignment[] allocateBatch(ReservationCommand[] requests, int count, boolean strictOrder) {
+        SeatAssignment[] results = new SeatAssignment[count];
+        if (!strictOrder && (placement == Placement.BEST_FIT || placement == Placement.PREFERENCE_BEST_FIT)) {
+            sweep(requests, count, results);
+        }
+        for (int i = 0; i < count; i++) {
+            if (results[i] != null) continue;
+            ReservationCommand request = requests[i];
+            results[i] = request.getTargetSeat() > 0
+                    ? allocateNear(request.getName(), request.getSeatsNeeded(), request.getTargetSeat())
+                    : allocate(request.getName(), request.getSeatsNeeded(), request.getPreference());
+        }
+        return results;
+    }
+
+    /**
+     * A free block claimed by a batch, with the seats still open between the parties packed at each end.
+     */
+    private static final class OpenBlock {
+        final SeatAssignment block;
+        int front;  // first open seat
+        int back;   // one past the last open seat
+
+        OpenBlock(SeatAssignment block) {
+            this.block = block;
+            this.front = block.getSeatStartIndex();
+            this.back = front + block.getSeatQuantity();
+        }
+    }
+
+    /**
+     * Matches the batchable requests of a batch to free space and applies the result.
+     *
+     * @param requests The batch.
+     * @param count    The number of requests.
+     * @param results  Where to store each new reservation, by request index.
+     */
+    private void sweep(ReservationCommand[] requests, int count, SeatAssignment[] results) {
+        // Sort (seats, index) pairs so the smallest requests go first
+        long[] order = new long[count];
+        int sweepCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (requests[i].getTargetSeat() <= 0 && requests[i].getSeatsNeeded() > 0) {
+                order[sweepCount++] = ((long) requests[i].getSeatsNeeded() << 32) | i;
+            }
+        }
+        Arrays.sort(order, 0, sweepCount);
+
+        // Blocks opened by this batch, keyed like the free-block tree by (open seats, block start)
+        LongRedBlackTree<OpenBlock> partlyFilled = new LongRedBlackTree<>();
+        OpenBlock[] opened = new OpenBlock[sweepCount];
+        int openedCount = 0;
+        int placed = 0;
+        long cursor = Long.MIN_VALUE;  // fresh blocks at or below this key are already opened
+        for (int j = 0; j < sweepCount; j++) {
+            int index = (int) order[j];
+            int seatsNeeded = (int) (order[j] >>> 32);
+            long fit = SeatAssignment.packKey(seatsNeeded, 0);
+            SeatAssignment fresh = freeBlocks.ceilingValue(Math.max(fit, cursor));
+            LongRedBlackTree<OpenBlock>.Node reuse = partlyFilled.ceiling(fit);
+            OpenBlock target;
+            if (reuse != null && (fresh == null || reuse.key < fresh.getPackedKey())) {
+                target = reuse.value;
+                partlyFilled.delete(reuse.key);
+            } else if (fresh != null) {
+                target = new OpenBlock(fresh);
+                opened[openedCount++] = target;
+                cursor = fresh.getPackedKey() + 1;
+            } else {
+                break;  // every later request is at least as large
+            }
+
+            int startSeat;
+            if (clampPreference(requests[index].getPreference()) < 50) {
+                startSeat = target.front;
+                target.front += seatsNeeded;
+            } else {
+                target.back -= seatsNeeded;
+                startSeat = target.back;
+            }
+            results[index] = new SeatAssignment(requests[index].getName(), seatsNeeded, startSeat);
+            placed++;
+            if (target.back > target.front) {
+                partlyFilled.insert(SeatAssignment.packKey(target.back - target.front, target.block.getSeatStartIndex()), target);
+            }
+        }
+        if (placed == 0) return;
+
+        // A linear rebuild only beats one insert per party once the batch outnumbers the blocks
+        if (placed >= getSize()) {
+            rebuildWith(opened, openedCount, results);
+        } else {
+            for (int k = 0; k < openedCount; k++) {
+                removeFree(opened[k].block);
+                if (opened[k].back > opened[k].front) {
+                    addFree(new SeatAssignment(opened[k].back - opened[k].front, opened[k].front));
+                }
+            }
+            for (SeatAssignment reservation : results) {
+                if (reservation != null) {
+                    reservations.insert(reservation.getSeatStartIndex(), reservation);
+                }
+            }
+        }
+        for (SeatAssignment reservation : results) {
+            if (reservation != null) {
+                indexOwner(reservation);
+                published(reservation, true);
+            }
+        }
+    }
+
+    /**
+     * Applies a batch by rebuilding every index from the current seat map, with the opened free
+     * blocks replaced by their parties and leftovers.
+     *
+     * @param opened      The free blocks the batch claimed.
+     * @param openedCount The number of them.
+     * @param results     The new reservations, with nulls for requests not placed by the sweep.
+     */
+    private void rebuildWith(OpenBlock[] opened, int openedCount, SeatAssignment[] results) {
+        long[] consumed = new long[openedCount];
+        SeatAssignment[] pieces = new SeatAssignment[results.length + openedCount];
+        int pieceCount = 0;
+        for (int k = 0; k < openedCount; k++) {
+            consumed[k] = opened[k].block.getSeatStartIndex();
+            if (opened[k].back > opened[k].front) {
+                pieces[pieceCount++] = new SeatAssignment(opened[k].back - opened[k].front, opened[k].front);
+            }
+        }
+        for (SeatAssignment reservation : results) {
+            if (reservation != null) {
+                pieces[pieceCount++] = reservation;
+            }
+        }
+        Arrays.sort(consumed);
+        Arrays.sort(pieces, 0, pieceCount, (a, b) -> Integer.compare(a.getSeatStartIndex(), b.getSeatStartIndex()));
+
+        Iterator<SeatAssignment> remainingFree = withoutStarts(freeByStart.iterator(), consumed);
+        Iterator<SeatAssignment> current = mergeByStart(remainingFree, reservations.iterator());
+        rebuild(mergeByStart(current, Arrays.asList(pieces).subList(0, pieceCount).iterator()), false);
+    }
+
+    /**
+     * Filters a start-ordered stream of blocks, dropping those that start at any of the given seats.
+     *
+     * @param blocks Blocks in increasing order of starting seat.
+     * @param starts The starting seats to drop, sorted.
+     * @return The filtered iterator.
+     */
+    private static Iterator<SeatAssignment> withoutStarts(Iterator<SeatAssignment> blocks, long[] starts) {
+        return new Iterator<SeatAssignment>() {
+            private int skip;
+            private SeatAssignment next = advance();
+
+            private SeatAssignment advance() {
+                while (blocks.hasNext()) {
+                    SeatAssignment block = blocks.next();
+                    while (skip < starts.length && starts[skip] < block.getSeatStartIndex()) skip++;
+                    if (skip == starts.length || starts[skip] != block.getSeatStartIndex()) return block;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public SeatAssignment next() {
+                if (next == null) throw new NoSuchElementException();
+                SeatAssignment block = next;
+                next = advance();
+                return block;
+            }
+        };
+    }
+
+    /**
+     * Reserves seats for an owner as close as possible to a target seat. Because seats are numbered
+     * in snake order, nearby numbers are physically close, so this honours requests such as "around
+     * section X". The party is centred on the target when the nearest block allows it, and otherwise
+     * sits at the end of the block nearest the target.
+     *
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats requested.
+     * @param targetSeat  The seat to sit near.
+     * @return The new reservation, or null if seatsNeeded is not positive or no free block is large enough.
+     */
+    public SeatAssignment allocateNear(String owner, int seatsNeeded, int targetSeat) {
+        if (seatsNeeded < 1) return null;
+        SeatAssignment emptyBlock = getNearestFreeBlock(targetSeat, seatsNeeded);
+        if (emptyBlock == null) return null;
+
+        int first = emptyBlock.getSeatStartIndex();
+        int last = first + emptyBlock.getSeatQuantity() - seatsNeeded;
+        int startSeat = Math.max(first, Math.min(last, targetSeat - (seatsNeeded - 1) / 2));
+        return carve(emptyBlock, owner, seatsNeeded, startSeat);
+    }
+
+    /**
+     * Finds the free block of at least a given size that is nearest to a target seat, measured from
+     * the target to the closest seat of the block. This is two searches of the start-ordered free-block
+     * index that skip subtrees whose largest block is too small, so it is O(log n) rather than a scan.
+     *
+     * @param targetSeat  The seat to search around.
+     * @param seatsNeeded The smallest block size to accept.
+     * @return The nearest sufficient free block, preferring the lower one on a tie,
+     *         or null if no free block is large enough.
+     */
+    public SeatAssignment getNearestFreeBlock(int targetSeat, int seatsNeeded) {
+        SeatAssignment before = freeByStart.floorValue(targetSeat, seatsNeeded);
+        if (before != null && before.getSeatStartIndex() + before.getSeatQuantity() > targetSeat) {
+            return before;  // the target seat is inside it
+        }
+        SeatAssignment after = freeByStart.ceilingValue(targetSeat + 1L, seatsNeeded);
+        if (before == null) return after;
+        if (after == null) return before;
+
+        long beforeDistance = (long) targetSeat - (before.getSeatStartIndex() + before.getSeatQuantity() - 1);
+        long afterDistance = (long) after.getSeatStartIndex() - targetSeat;
+        return afterDistance < beforeDistance ? after : before;
+    }
+
+    /**
+     * Gets the placement policy {@link #allocate(String, int, int)} uses.
+     *
+     * @return The placement policy.
+     */
+    public Placement getPlacement() {
+        return placement;
+    }
+
+    /**
+     * Sets the placement policy {@link #allocate(String, int, int)} uses, for example per event.
+     *
+     * @param placement The placement policy.
+     */
+    public void setPlacement(Placement placement) {
+        this.placement = placement;
     }
 
     /**
-     * Finds a SeatAssignment in the tree by its key.
+     * Sets the smallest leftover block {@link Placement#MIN_FRAGMENT} is willing to create.
+     *
+     * @param minimumFragment The number of seats below which a remainder counts as waste.
+     */
+    public void setMinimumFragment(int minimumFragment) {
+        if (minimumFragment < 1) {
+            throw new IllegalArgumentException("minimumFragment must be positive");
+        }
+        this.minimumFragment = minimumFragment;
+    }
+
+    /**
+     * Sends every later reservation and release to a feed, for a viewer on another thread.
+     * Each change is published once it is complete, together with the free-block version it produced.
+     *
+     * @param changeFeed The feed, or null to stop publishing.
+     * @throws IllegalStateException if the tree does not keep versions (see {@link #hasVersions()}),
+     *                               which the feed hands to the viewer
+     */
+    public void setChangeFeed(SeatChangeFeed changeFeed) {
+        if (changeFeed != null && !hasVersions()) {
+            throw new IllegalStateException("a change feed requires the persistent backend");
+        }
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Publishes a finished change to the change feed, if there is one.
+     *
+     * @param block    The reservation that was made or released.
+     * @param assigned true if its seats are now reserved.
+     */
+    private void published(SeatAssignment block, boolean assigned) {
+        if (changeFeed != null) {
+            changeFeed.publish(getFreeBlockVersion(), getReservationVersion(),
+                    block.getSeatStartIndex(), block.getSeatQuantity(), assigned);
+        }
+    }
+
+    /**
+     * Reserves an exact run of seats for an owner, as when replaying a recorded booking.
+     *
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats.
+     * @param startSeat   The first seat of the run.
+     * @return The new reservation, or null if any seat in the run is not free.
+     */
+    public SeatAssignment reserve(String owner, int seatsNeeded, int startSeat) {
+        SeatAssignment emptyBlock = getFreeBlockContaining(startSeat);
+        if (emptyBlock == null || seatsNeeded < 1
+                || emptyBlock.getSeatStartIndex() + emptyBlock.getSeatQuantity() < startSeat + seatsNeeded) {
+            return null;
+        }
+        return carve(emptyBlock, owner, seatsNeeded, startSeat);
+    }
+
+    /**
+     * Splits a free block into a reservation and whatever is left free on either side of it.
+     *
+     * @param emptyBlock  The free block, which must contain the whole run.
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats.
+     * @param startSeat   The first seat of the reservation.
+     * @return The new reservation.
+     */
+    private SeatAssignment carve(SeatAssignment emptyBlock, String owner, int seatsNeeded, int startSeat) {
+        int openSeats = emptyBlock.getSeatQuantity();
+        int openSeatStart = emptyBlock.getSeatStartIndex();
+
+        removeFree(emptyBlock);
+        SeatAssignment reservation = new SeatAssignment(owner, seatsNeeded, startSeat);
+        reservations.insert(startSeat, reservation);
+        indexOwner(reservation);
+
+        int leftSeats = startSeat - openSeatStart;
+        if (leftSeats > 0) {
+            addFree(new SeatAssignment(leftSeats, openSeatStart));
+        }
+        if (leftSeats + seatsNeeded < openSeats) {
+            addFree(new SeatAssignment(openSeats - leftSeats - seatsNeeded, startSeat + seatsNeeded));
+        }
+        published(reservation, true);
+        return reservation;
+    }
+
+    /**
+     * Limits a seating preference to the 0 to 100 range placement understands.
+     *
+     * @param preference The requested preference.
+     * @return The preference, clamped to 0 through 100.
+     */
+    static int clampPreference(int preference) {
+        return Math.max(0, Math.min(100, preference));
+    }
+
+    /**
+     * Releases a reservation and returns its seats to the free pool, merging them with the
+     * free blocks that end right before it and start right after it.
+     *
+     * @param reservation The reservation to cancel.
+     * @return The resulting free block, or null if the reservation was not in the tree.
+     */
+    public SeatAssignment release(SeatAssignment reservation) {
+        SeatAssignment stored = removeReservation(reservation);
+        if (stored == null) return null;
+        owners.remove(stored);
+
+        int start = stored.getSeatStartIndex();
+        int end = start + stored.getSeatQuantity();
+
+        SeatAssignment before = freeByStart.floorValue(start - 1);
+        if (before != null && before.getSeatStartIndex() + before.getSeatQuantity() == start) {
+            start = before.getSeatStartIndex();
+            removeFree(before);
+        }
+        SeatAssignment after = freeByStart.getValue(end);
+        if (after != null) {
+            end += after.getSeatQuantity();
+            removeFree(after);
+        }
+
+        SeatAssignment merged = new SeatAssignment(end - start, start);
+        addFree(merged);
+        published(stored, false);
+        return merged;
+    }
+
+    /**
+     * Removes a reservation from the reservation index with a single delete, which walks the tree once.
+     *
+     * @param reservation The reservation to remove.
+     * @return The reservation as stored, or null if the index holds no reservation with the same seats.
+     */
+    private SeatAssignment removeReservation(SeatAssignment reservation) {
+        SeatAssignment stored = reservations.delete(reservation.getSeatStartIndex());
+        if (stored != null && stored.getPackedKey() != reservation.getPackedKey()) {
+            // A stale handle to a different booking that starts at the same seat: keep that booking
+            reservations.insert(stored.getSeatStartIndex(), stored);
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * Adds an unassigned block to both free-block indexes.
+     *
+     * @param block The free block.
+     */
+    private void addFree(SeatAssignment block) {
+        freeBlocks.insert(block.getPackedKey(), block);
+        freeByStart.insert(block.getSeatStartIndex(), block);
+    }
+
+    /**
+     * Removes an unassigned block from both free-block indexes.
+     *
+     * @param block The free block, as stored in the tree.
+     */
+    private void removeFree(SeatAssignment block) {
+        freeBlocks.delete(block.getPackedKey());
+        freeByStart.delete(block.getSeatStartIndex());
+    }
+
+    /**
+     * Finds a SeatAssignment by its packed key, whether it is free or reserved.
+     *
+     * @param key The packed key of the SeatAssignment to search for.
+     * @return The SeatAssignment object if found, otherwise null.
+     */
+    public SeatAssignment getValue(long key) {
+        SeatAssignment free = freeBlocks.getValue(key);
+        if (free != null) return free;
+
+        SeatAssignment reserved = reservations.getValue(key & 0xFFFFFFFFL);
+        if (reserved != null && reserved.getPackedKey() == key) return reserved;
+        return null;
+    }
+
+    /**
+     * Finds a SeatAssignment in the tree by its legacy string key.
      *
      * @param key The key of the SeatAssignment to search for.
      * @return The SeatAssignment object if found, otherwise null.
      */
     public SeatAssignment getValue(String key) {
-        return super.getValue(key);  // Use the RedBlackTree's getValue method to get the value (SeatAssignment)
+        return getValue(SeatAssignment.parseKey(key));
     }
 
     /**
-     * Finds the first unassigned block of seats with size >= threshold
+     * Finds the reservation that starts at a given seat.
+     *
+     * @param seatStartIndex The first seat of the reservation.
+     * @return The reservation, or null if none starts there.
      */
+    public SeatAssignment getReservation(int seatStartIndex) {
+        return reservations.getValue(seatStartIndex);
+    }
 
-    private Node traverseTreeForUnassigned(Node n, String key) {
-        if (n==null) return null;
-        if (n.key == null) return null;
-        if (key.compareTo(n.key)<0) {
-            Node bestLeftOption = null;
-            if (n.left != null) bestLeftOption = traverseTreeForUnassigned(n.left, key);
-            if (bestLeftOption != null) return bestLeftOption;
+    /**
+     * Finds the most recent reservation held by an owner. Once it is released, the owner's
+     * previous booking, if any, becomes the most recent again.
+     *
+     * @param owner The owner's name.
+     * @return The reservation, or null if the owner holds none.
+     */
+    public SeatAssignment getReservation(String owner) {
+        return owners.latest(owner);
+    }
 
-            // We didn't find a good node to the left, check this node
-            if (n.value.getOwner() == null) return n;
-        }
+    /**
+     * Finds every reservation held by an owner.
+     *
+     * @param owner The owner's name.
+     * @return The reservations, oldest booking first; empty if the owner holds none.
+     */
+    public SeatAssignment[] getReservations(String owner) {
+        return owners.all(owner);
+    }
 
-        return traverseTreeForUnassigned(n.right, key);
+    /**
+     * Cancels an owner's most recent reservation.
+     *
+     * @param owner The owner's name.
+     * @return The resulting free block, or null if the owner holds no reservation.
+     */
+    public SeatAssignment cancel(String owner) {
+        SeatAssignment reservation = owners.latest(owner);
+        return reservation == null ? null : release(reservation);
     }
 
+    /**
+     * Finds the first unassigned block of seats with size >= threshold,
+     * which is the smallest sufficient free block.
+     *
+     * @param threshold The number of seats needed.
+     * @return The free block, or null if no free block is large enough.
+     */
     public SeatAssignment getUnassignedBlockOverThreshold(int threshold) {
+        if (getLargestUnassignedBlock() < threshold) return null;
+
+        return freeBlocks.ceilingValue(SeatAssignment.packKey(threshold, 0));
+    }
+
+    /**
+     * Gets the size of the largest unassigned block in the tree.
+     *
+     * @return The largest free block size, or 0 if there is none.
+     */
+    public int getLargestUnassignedBlock() {
+        return (int) freeBlocks.maxWeight();
+    }
+
+    /**
+     * Gets the number of unassigned blocks.
+     *
+     * @return The free block count.
+     */
+    public int getFreeBlockCount() {
+        return freeBlocks.getSize();
+    }
+
+    /**
+     * Finds the unassigned block that contains a seat.
+     *
+     * @param seat The seat number.
+     * @return The free block, or null if the seat is reserved or out of range.
+     */
+    public SeatAssignment getFreeBlockContaining(int seat) {
+        SeatAssignment block = freeByStart.floorValue(seat);
+        if (block == null || block.getSeatStartIndex() + block.getSeatQuantity() <= seat) return null;
+        return block;
+    }
+
+    /**
+     * Gets the number of unassigned seats.
+     *
+     * @return The total seats across every free block.
+     */
+    public long getFreeSeatCount() {
+        return freeBlocks.getWeightSum();
+    }
+
+    /**
+     * Gets the number of reserved seats.
+     *
+     * @return The total seats across every reservation.
+     */
+    public long getReservedSeatCount() {
+        return reservations.getWeightSum();
+    }
+
+    /**
+     * Finds the k-th largest unassigned block.
+     *
+     * @param k 1 for the largest block, 2 for the next, and so on.
+     * @return The free block, or null if there are fewer than k free blocks.
+     */
+    public SeatAssignment getKthLargestFreeBlock(int k) {
+        return freeBlocks.select(freeBlocks.getSize() - k);
+    }
 
-        String searchKey = String.format("%06d", threshold) + "0000000";
-        // Traverse the tree to find the first unassigned node with key > searchkey
-        // a node is unassigned if node.value.getOwner() is null
-        Node unassignedNode = traverseTreeForUnassigned(this.root, searchKey);
+    /**
+     * Counts the unassigned blocks that could hold a party of a given size.
+     *
+     * @param threshold The number of seats needed.
+     * @return The number of free blocks with at least that many seats.
+     */
+    public int countFreeBlocksOverThreshold(int threshold) {
+        return freeBlocks.getSize() - freeBlocks.rank(SeatAssignment.packKey(threshold, 0));
+    }
 
-        if (unassignedNode == null) return null;
-        else return unassignedNode.value;
+    /**
+     * Counts the reservations that start within a range of seats.
+     *
+     * @param firstSeat The first seat of the range.
+     * @param lastSeat  The last seat of the range.
+     * @return The number of reservations starting in the range.
+     */
+    public int countReservationsInRange(int firstSeat, int lastSeat) {
+        return reservations.countInRange(firstSeat, lastSeat);
+    }
 
+    /**
+     * Totals the seats of reservations that start within a range of seats.
+     *
+     * @param firstSeat The first seat of the range.
+     * @param lastSeat  The last seat of the range.
+     * @return The reserved seats of reservations starting in the range.
+     */
+    public long getReservedSeatsInRange(int firstSeat, int lastSeat) {
+        return reservations.sumInRange(firstSeat, lastSeat);
     }
 
-    public Node getRoot() {
-        return this.root;
+    /**
+     * Gets the number of reservations.
+     *
+     * @return The reservation count.
+     */
+    public int getReservationCount() {
+        return reservations.getSize();
+    }
+
+    /**
+     * Gets the total number of blocks, free and reserved.
+     *
+     * @return The block count.
+     */
+    public int getSize() {
+        return freeBlocks.getSize() + reservations.getSize();
+    }
+
+    /**
+     * Returns whether there are no blocks at all.
+     *
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty() {
+        return freeBlocks.isEmpty() && reservations.isEmpty();
+    }
+
+    /**
+     * Checks both internal trees.
+     *
+     * @return true if both are valid Red-Black Trees
+     */
+    public boolean validateRedBlackTree() {
+        return freeBlocks.validateRedBlackTree() && freeByStart.validateRedBlackTree()
+                && reservations.validateRedBlackTree();
+    }
+
+    /**
+     * Gets the root of the free-block tree.
+     *
+     * @return The root node, or null if there are no free blocks or the node backend is not in use.
+     */
+    public LongRedBlackTree<SeatAssignment>.Node getRoot() {
+        return freeBlocks instanceof BlockTree ? ((BlockTree) freeBlocks).root : null;
+    }
+
+    /**
+     * Gets the root of the reservation index.
+     *
+     * @return The root node, or null if there are no reservations or the node backend is not in use.
+     */
+    public LongRedBlackTree<SeatAssignment>.Node getReservationRoot() {
+        return reservations instanceof BlockTree ? ((BlockTree) reservations).root : null;
+    }
+
+    /**
+     * Gets the current version of the free-block tree. The version is immutable, so it can be
+     * handed to another thread, such as the event dispatch thread, and read there while this tree
+     * keeps changing.
+     *
+     * @return The root of the current version, or null if there are no free blocks or the
+     *         persistent backend is not in use.
+     */
+    public PersistentLongRedBlackTree.Node<SeatAssignment> getFreeBlockVersion() {
+        return freeBlocks instanceof PersistentBlockTree ? ((PersistentBlockTree) freeBlocks).getRoot() : null;
+    }
+
+    /**
+     * Gets the current version of the reservation index, which like the free-block version can be
+     * read on another thread while this tree keeps changing.
+     *
+     * @return The root of the current version, or null if there are no reservations or the
+     *         persistent backend is not in use.
+     */
+    public PersistentLongRedBlackTree.Node<SeatAssignment> getReservationVersion() {
+        return reservations instanceof PersistentBlockTree ? ((PersistentBlockTree) reservations).getRoot() : null;
+    }
+
+    /**
+     * Whether this tree keeps immutable versions of its indexes, which only the persistent backend does.
+     *
+     * @return true if {@link #getFreeBlockVersion()} and {@link #getReservationVersion()} track the seat map.
+     */
+    public boolean hasVersions() {
+        return freeBlocks instanceof PersistentBlockTree;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,286 @@
+package edu.hsutx;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, level-gated event log for the reservation hot path.
+ *
+ * Callers hand over primitives and existing references only; nothing is formatted on the calling
+ * thread. Each call checks the level first, so a disabled level costs one comparison. Enabled events
+ * are copied into a preallocated ring buffer: a producer claims a slot with one atomic increment,
+ * fills it, and publishes it by storing its sequence number, so no locks are taken and several
+ * threads may log at once. A background thread drains the ring in order into an {@link EventSink},
+ * flushing the sink whenever it catches up.
+ *
+ * If producers get a full ring ahead of the sink they wait for space rather than drop events, so the
+ * audit trail stays complete; a waiting producer parks in short naps instead of spinning. A sink that
+ * fails to write is reported once on standard error and then counted, and {@link #close()} rethrows
+ * its first failure after draining what is left and closing the sink.
+ */
+public class EventLog implements AutoCloseable {
+
+    /**
+     * Severity levels, from least to most verbose. A log set to a level records that level and every
+     * level before it.
+     */
+    public enum Level {
+        OFF, ERROR, INFO, DEBUG
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long FULL_RING_PARK_NANOS = 100_000;  // How long a producer naps while the ring is full
+
+    private final EventSink sink;
+    private final Level threshold;
+    private final LogEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long drained;
+    private volatile boolean closed;
+    private final Thread drainer;
+    private volatile IOException sinkFailure;  // The sink's first failure, if any
+    private volatile long sinkFailures;  // Written only by the drainer
+
+    /**
+     * Creates a log with the default ring capacity.
+     *
+     * @param sink      Where events are written.
+     * @param threshold The most verbose level to record.
+     */
+    public EventLog(EventSink sink, Level threshold) {
+        this(sink, threshold, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a log.
+     *
+     * @param sink      Where events are written.
+     * @param threshold The most verbose level to record.
+     * @param capacity  Ring size, rounded up to a power of two.
+     */
+    public EventLog(EventSink sink, Level threshold, int capacity) {
+        this.sink = sink;
+        this.threshold = threshold;
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        slots = new LogEvent[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new LogEvent();
+            published.set(i, -1);
+        }
+        mask = size - 1;
+
+        drainer = new Thread(this::drain, "event-log");
+        drainer.setDaemon(true);
+        if (threshold != Level.OFF) {
+            drainer.start();
+        }
+    }
+
+    /**
+     * Creates a log that records nothing.
+     *
+     * @return A log at level OFF.
+     */
+    public static EventLog disabled() {
+        return new EventLog(null, Level.OFF, 2);
+    }
+
+    /**
+     * Checks whether a level is recorded. Use this to guard any work done only to build a message.
+     *
+     * @param level The level to check.
+     * @return true if events at that level are recorded.
+     */
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && level.ordinal() <= threshold.ordinal();
+    }
+
+    /**
+     * Records a free-form message.
+     *
+     * @param level   The message level.
+     * @param message The text; pass a constant so that nothing is built when the level is off.
+     */
+    public void message(Level level, String message) {
+        if (!isEnabled(level)) return;
+        LogEvent event = claim(level, LogEvent.Kind.MESSAGE);
+        event.message = message;
+        publish(event);
+    }
+
+    /**
+     * Records a command as it is read, at DEBUG.
+     *
+     * @param command The command; its fields are copied.
+     */
+    public void command(ReservationCommand command) {
+        if (!isEnabled(Level.DEBUG)) return;
+        LogEvent event = claim(Level.DEBUG, LogEvent.Kind.COMMAND);
+        event.command = command.getType();
+        event.owner = command.getName();
+        event.seats = command.getSeatsNeeded();
+        event.preference = command.getPreference();
+        event.targetSeat = command.getTargetSeat();
+        publish(event);
+    }
+
+    /**
+     * Records a new reservation, at INFO.
+     *
+     * @param reservation The reservation made.
+     * @param preference  The preference it was placed with.
+     */
+    public void allocated(SeatAssignment reservation, int preference) {
+        if (!isEnabled(Level.INFO)) return;
+        LogEvent event = claim(Level.INFO, LogEvent.Kind.ALLOCATED);
+        event.owner = reservation.getOwner();
+        event.seats = reservation.getSeatQuantity();
+        event.start = reservation.getSeatStartIndex();
+        event.preference = preference;
+        publish(event);
+    }
+
+    /**
+     * Records a cancelled reservation, at INFO.
+     *
+     * @param reservation The reservation released.
+     * @param merged      The free block it became part of.
+     */
+    public void released(SeatAssignment reservation, SeatAssignment merged) {
+        if (!isEnabled(Level.INFO)) return;
+        LogEvent event = claim(Level.INFO, LogEvent.Kind.RELEASED);
+        event.owner = reservation.getOwner();
+        event.seats = reservation.getSeatQuantity();
+        event.start = reservation.getSeatStartIndex();
+        event.mergedSeats = merged.getSeatQuantity();
+        event.mergedStart = merged.getSeatStartIndex();
+        publish(event);
+    }
+
+    /**
+     * Records a command that could not be applied, at ERROR.
+     *
+     * @param command The command; its fields are copied.
+     */
+    public void rejected(ReservationCommand command) {
+        if (!isEnabled(Level.ERROR)) return;
+        LogEvent event = claim(Level.ERROR, LogEvent.Kind.REJECTED);
+        event.command = command.getType();
+        event.owner = command.getName();
+        event.seats = command.getSeatsNeeded();
+        event.preference = command.getPreference();
+        event.targetSeat = command.getTargetSeat();
+        publish(event);
+    }
+
+    /**
+     * Gets how many times the sink failed to write or flush. Each failed write loses one event.
+     *
+     * @return The failure count.
+     */
+    public long getSinkFailureCount() {
+        return sinkFailures;
+    }
+
+    /**
+     * Drains every event recorded so far, stops the background thread, and closes the sink.
+     *
+     * @throws IOException If the sink fails to close, or the first failure it had while writing.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (threshold == Level.OFF) return;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+        if (sinkFailure != null) throw sinkFailure;
+    }
+
+    /**
+     * Claims the next slot and resets it, waiting for the drainer if the ring is full.
+     *
+     * @param level The event level.
+     * @param kind  The event kind.
+     * @return The slot to fill, whose sequence is already set.
+     */
+    private LogEvent claim(Level level, LogEvent.Kind kind) {
+        long sequence = claimed.getAndIncrement();
+        while (sequence - drained >= slots.length) {
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(FULL_RING_PARK_NANOS);
+        }
+        LogEvent event = slots[(int) sequence & mask];
+        event.sequence = sequence;
+        event.timeMillis = System.currentTimeMillis();
+        event.level = level;
+        event.kind = kind;
+        event.command = 0;
+        event.owner = null;
+        event.message = null;
+        event.seats = 0;
+        event.preference = 0;
+        event.targetSeat = 0;
+        event.start = 0;
+        event.mergedSeats = 0;
+        event.mergedStart = 0;
+        return event;
+    }
+
+    private void publish(LogEvent event) {
+        published.set((int) event.sequence & mask, event.sequence);
+    }
+
+    /**
+     * Background loop: writes published events in sequence order, flushing and parking whenever
+     * it catches up, until the log is closed and everything claimed has been written.
+     */
+    private void drain() {
+        long next = 0;
+        while (true) {
+            int index = (int) next & mask;
+            if (published.get(index) == next) {
+                try {
+                    sink.write(slots[index]);
+                } catch (IOException e) {
+                    failed(e);
+                }
+                drained = ++next;
+                continue;
+            }
+
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                failed(e);
+            }
+            if (closed && next == claimed.get()) {
+                return;
+            }
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    /**
+     * Counts a sink failure, reporting only the first so a broken sink does not flood the console.
+     *
+     * @param e The failure.
+     */
+    private void failed(IOException e) {
+        sinkFailures++;
+        if (sinkFailure == null) {
+            sinkFailure = e;
+            System.err.println("Event log sink failed, later failures are only counted: " + e);
+        }
+    }
+}
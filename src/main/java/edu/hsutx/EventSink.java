@@ -0,0 +1,26 @@
+package edu.hsutx;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for the events of an {@link EventLog}. Only the log's background thread calls a sink,
+ * so implementations do not need to be thread-safe.
+ */
+public interface EventSink extends Closeable {
+
+    /**
+     * Formats and writes one event. The event is reused after this returns.
+     *
+     * @param event The event to write.
+     * @throws IOException If writing fails.
+     */
+    void write(LogEvent event) throws IOException;
+
+    /**
+     * Pushes buffered output to its destination. Called whenever the log runs out of pending events.
+     *
+     * @throws IOException If writing fails.
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,104 @@
+package edu.hsutx;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes events as an audit trail with one JSON object per line, for example
+ * <pre>{"seq":7,"t":1700000000000,"level":"INFO","event":"ALLOCATED","owner":"Ann Lee","seats":4,"start":120,"pref":50}</pre>
+ * Only the fields that apply to an event's kind are written; {@code targetSeat} appears only on
+ * commands that asked for seats near a particular seat.
+ */
+public class JsonLinesSink implements EventSink {
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(160);
+
+    /**
+     * Creates a sink that writes UTF-8 JSON lines.
+     *
+     * @param out The stream to write to; closed with the sink.
+     */
+    public JsonLinesSink(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    @Override
+    public void write(LogEvent event) throws IOException {
+        line.setLength(0);
+        line.append("{\"seq\":").append(event.getSequence())
+                .append(",\"t\":").append(event.getTimeMillis())
+                .append(",\"level\":\"").append(event.getLevel().name())
+                .append("\",\"event\":\"").append(event.getKind().name()).append('"');
+
+        switch (event.getKind()) {
+            case MESSAGE:
+                appendString("message", event.getMessage());
+                break;
+            case COMMAND:
+            case REJECTED:
+                line.append(",\"command\":\"").append(event.getCommand()).append('"');
+                appendString("owner", event.getOwner());
+                if (event.getCommand() == ReservationCommand.ADD) {
+                    line.append(",\"seats\":").append(event.getSeats())
+                            .append(",\"pref\":").append(event.getPreference());
+                    if (event.getTargetSeat() > 0) line.append(",\"targetSeat\":").append(event.getTargetSeat());
+                }
+                break;
+            case ALLOCATED:
+                appendString("owner", event.getOwner());
+                line.append(",\"seats\":").append(event.getSeats())
+                        .append(",\"start\":").append(event.getStart())
+                        .append(",\"pref\":").append(event.getPreference());
+                break;
+            case RELEASED:
+                appendString("owner", event.getOwner());
+                line.append(",\"seats\":").append(event.getSeats())
+                        .append(",\"start\":").append(event.getStart())
+                        .append(",\"mergedSeats\":").append(event.getMergedSeats())
+                        .append(",\"mergedStart\":").append(event.getMergedStart());
+                break;
+        }
+        line.append("}\n");
+        out.append(line);
+    }
+
+    /**
+     * Appends a quoted, escaped string field.
+     *
+     * @param name  The field name.
+     * @param value The value; null is written as JSON null.
+     */
+    private void appendString(String name, String value) {
+        line.append(",\"").append(name).append("\":");
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
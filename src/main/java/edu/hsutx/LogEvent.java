@@ -0,0 +1,91 @@
+package edu.hsutx;
+
+/**
+ * One entry in an {@link EventLog}. Events are preallocated slots in the log's ring buffer and are
+ * overwritten once a sink has written them, so a sink must not keep a reference past
+ * {@link EventSink#write(LogEvent)}. Fields that do not apply to an event's kind are zero or null.
+ */
+public class LogEvent {
+
+    /**
+     * What happened.
+     */
+    public enum Kind {
+        /** A free-form message. */
+        MESSAGE,
+        /** A command was read from the log; the command fields, including any target seat, are set. */
+        COMMAND,
+        /** A reservation was made; seats, preference and start are set. */
+        ALLOCATED,
+        /** A reservation was cancelled; seats and start are the reservation, merged fields the resulting free block. */
+        RELEASED,
+        /** A command could not be applied; the command fields are set. */
+        REJECTED
+    }
+
+    long sequence;
+    long timeMillis;
+    EventLog.Level level;
+    Kind kind;
+    char command;
+    String owner;
+    String message;
+    int seats;
+    int preference;
+    int targetSeat;
+    int start;
+    int mergedSeats;
+    int mergedStart;
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public EventLog.Level getLevel() {
+        return level;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public char getCommand() {
+        return command;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public int getPreference() {
+        return preference;
+    }
+
+    public int getTargetSeat() {
+        return targetSeat;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getMergedSeats() {
+        return mergedSeats;
+    }
+
+    public int getMergedStart() {
+        return mergedStart;
+    }
+}
@@ -0,0 +1,885 @@
+package edu.hsutx;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A Red-Black Tree keyed by a primitive long instead of a String.
+ * Follows the same properties as {@link RedBlackTree}:
+ * 1. Every node is either red or black.
+ * 2. The root is always black.
+ * 3. Every leaf (null child) is black.
+ * 4. If a node is red, then both its children are black.
+ * 5. For each node, all simple paths from the node to descendant leaves have
+ * the same number of black nodes.
+ *
+ * Keys are compared as plain longs, so lookups never allocate or fold case.
+ * Leaves are represented by null children rather than sentinel nodes.
+ *
+ * Every node also carries the number of nodes in its subtree, and the largest and the total
+ * {@link #weight(Object)} found there. Subclasses override weight to make the weight
+ * augmentations meaningful. All three are kept up to date through insertions, deletions, and
+ * every rotation, which gives O(log n) {@link #select(int)}, {@link #rank(long)} and
+ * {@link #sumInRange(long, long)}.
+ */
+public class LongRedBlackTree<E> implements Iterable<E> {
+    /**
+     * The head of the RBT.
+     */
+    Node root;
+    /**
+     * Number of elements.
+     */
+    int size;
+
+    /**
+     * A Node class for the RBT with key, value, left, right, color, and parent.
+     *
+     */
+    protected class Node {
+        public long key;
+        public E value;
+        public Node left;
+        public Node right;
+        public Node parent;
+        public boolean color; // true = red, false = black
+        public long maxWeight; // largest weight in this subtree
+        public long weightSum; // total weight in this subtree
+        public int count;      // number of nodes in this subtree
+
+        /**
+         * Initialize the attributes of a Node.
+         *
+         * @param key    long for placing the item properly
+         * @param value  the data
+         * @param parent parent node of this node; null for head
+         * @param color  insertions are red
+         */
+        public Node(long key, E value, Node parent, boolean color) {
+            this.key = key;
+            this.value = value;
+            this.parent = parent;
+            this.left = null;
+            this.right = null;
+            this.color = color;
+            this.maxWeight = weight(value);
+            this.weightSum = this.maxWeight;
+            this.count = 1;
+        }
+
+        /**
+         * Gets the depth of the given node.
+         *
+         * @return the number of levels up to root
+         */
+        public int getDepth() {
+            Node par = this.parent;
+            int count = 1;
+            while (par != null) {
+                par = par.parent;
+                count++;
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * Initialize an empty RBT.
+     *
+     */
+    public LongRedBlackTree() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Weight of a value for the subtree-maximum augmentation. The default gives
+     * every value weight 0.
+     *
+     * @param value the data
+     * @return the value's weight
+     */
+    protected long weight(E value) {
+        return 0;
+    }
+
+    /**
+     * Recompute a node's augmented fields from its value and children.
+     *
+     * @param node node to update
+     */
+    private void update(Node node) {
+        long own = weight(node.value);
+        long max = own;
+        long sum = own;
+        int count = 1;
+        if (node.left != null) {
+            max = Math.max(max, node.left.maxWeight);
+            sum += node.left.weightSum;
+            count += node.left.count;
+        }
+        if (node.right != null) {
+            max = Math.max(max, node.right.maxWeight);
+            sum += node.right.weightSum;
+            count += node.right.count;
+        }
+        node.maxWeight = max;
+        node.weightSum = sum;
+        node.count = count;
+    }
+
+    /**
+     * Recompute augmented fields from a node up to the root.
+     *
+     * @param node lowest node whose subtree changed; may be null
+     */
+    private void updatePath(Node node) {
+        while (node != null) {
+            update(node);
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Insert a new node. Insertions are red.
+     *
+     * @param key   key for this node
+     * @param value data for this node
+     */
+    public void insert(long key, E value) {
+        Node par = null;
+        Node node = root;
+        while (node != null) {
+            if (key == node.key) {// duplicate
+                return;
+            }
+            par = node;
+            node = key < node.key ? node.left : node.right;
+        }
+
+        Node added = new Node(key, value, par, true);
+        if (par == null) {
+            root = added;
+        } else if (key < par.key) {
+            par.left = added;
+        } else {
+            par.right = added;
+        }
+        size++;
+        updatePath(par);
+        fixInsert(added);
+    }
+
+    /**
+     * Build the tree from keys that are already in strictly increasing order, in O(n).
+     * The middle key of each range becomes the root of that range, so every level is
+     * full except possibly the last; the nodes on that last level are colored red and
+     * everything above it black.
+     *
+     * @param keys   keys in strictly increasing order
+     * @param values value for each key
+     * @param count  number of entries to load from the arrays
+     * @throws IllegalStateException    if the tree is not empty
+     * @throws IllegalArgumentException if the keys are not strictly increasing
+     */
+    public void bulkLoad(long[] keys, E[] values, int count) {
+        if (!isEmpty()) {
+            throw new IllegalStateException("bulkLoad requires an empty tree");
+        }
+        for (int i = 1; i < count; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("keys must be strictly increasing at index " + i);
+            }
+        }
+        int redDepth = 31 - Integer.numberOfLeadingZeros(count + 1);
+        root = build(keys, values, 0, count - 1, null, 0, redDepth);
+        size = count;
+    }
+
+    /**
+     * Recursive helper for bulkLoad that builds one balanced subtree.
+     *
+     * @param keys     sorted keys
+     * @param values   matching values
+     * @param lo       first index of the range
+     * @param hi       last index of the range
+     * @param parent   parent of the subtree root
+     * @param depth    depth of the subtree root, 0 for the tree root
+     * @param redDepth depth whose nodes are colored red
+     * @return root of the subtree, or null for an empty range
+     */
+    private Node build(long[] keys, E[] values, int lo, int hi, Node parent, int depth, int redDepth) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node node = new Node(keys[mid], values[mid], parent, depth == redDepth);
+        node.left = build(keys, values, lo, mid - 1, node, depth + 1, redDepth);
+        node.right = build(keys, values, mid + 1, hi, node, depth + 1, redDepth);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Delete a node.
+     *
+     * @param key of node to remove
+     * @return the removed node's value, or null if not found
+     */
+    public E delete(long key) {
+        Node loc = find(key);
+        if (loc == null) {// not found
+            return null;
+        }
+        deleteNode(loc);
+        return loc.value;
+    }
+
+    /**
+     * Unlink a node that is known to be in the tree. The successor of a node
+     * with two children is moved into its place, so handles to other nodes
+     * stay valid.
+     *
+     * @param node node to remove
+     */
+    void deleteNode(Node node) {
+        Node child;
+        Node childParent;
+        boolean removedBlack;
+        if (node.left != null && node.right != null) {// two children
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            removedBlack = !successor.color;
+            child = successor.right;
+            if (successor.parent == node) {
+                childParent = successor;
+            } else {
+                childParent = successor.parent;
+                transplant(successor, successor.right);
+                successor.right = node.right;
+                successor.right.parent = successor;
+            }
+            transplant(node, successor);
+            successor.left = node.left;
+            successor.left.parent = successor;
+            successor.color = node.color;
+        } else {// zero or one child
+            removedBlack = !node.color;
+            child = node.left != null ? node.left : node.right;
+            childParent = node.parent;
+            transplant(node, child);
+        }
+        node.left = null;
+        node.right = null;
+        node.parent = null;
+        size--;
+        updatePath(childParent);
+        if (removedBlack) {
+            fixDelete(child, childParent);
+        }
+    }
+
+    /**
+     * Replace the subtree rooted at one node with the subtree rooted at another.
+     *
+     * @param out node being replaced
+     * @param in  node taking its place; may be null
+     */
+    private void transplant(Node out, Node in) {
+        if (out.parent == null) {
+            root = in;
+        } else if (out == out.parent.left) {
+            out.parent.left = in;
+        } else {
+            out.parent.right = in;
+        }
+        if (in != null) {
+            in.parent = out.parent;
+        }
+    }
+
+    /**
+     * Restore RBT properties after an insertion.
+     *
+     * @param node the newly inserted red node
+     */
+    private void fixInsert(Node node) {
+        while (isRed(node.parent)) {
+            Node par = node.parent;
+            Node gp = par.parent;
+            if (par == gp.left) {
+                Node unc = gp.right;
+                if (isRed(unc)) {// red uncle: recolor and move up
+                    par.color = false;
+                    unc.color = false;
+                    gp.color = true;
+                    node = gp;
+                } else {
+                    if (node == par.right) {// zig-zag
+                        node = par;
+                        rotateLeft(node);
+                        par = node.parent;
+                    }
+                    par.color = false;
+                    gp.color = true;
+                    rotateRight(gp);
+                }
+            } else {
+                Node unc = gp.left;
+                if (isRed(unc)) {
+                    par.color = false;
+                    unc.color = false;
+                    gp.color = true;
+                    node = gp;
+                } else {
+                    if (node == par.left) {
+                        node = par;
+                        rotateRight(node);
+                        par = node.parent;
+                    }
+                    par.color = false;
+                    gp.color = true;
+                    rotateLeft(gp);
+                }
+            }
+        }
+        root.color = false;
+    }
+
+    /**
+     * Restore RBT properties after removing a black node.
+     *
+     * @param node   node that took the removed node's place; may be null
+     * @param parent parent of that position
+     */
+    private void fixDelete(Node node, Node parent) {
+        while (node != root && isBlack(node)) {
+            if (node == parent.left) {
+                Node sib = parent.right;
+                if (isRed(sib)) {
+                    sib.color = false;
+                    parent.color = true;
+                    rotateLeft(parent);
+                    sib = parent.right;
+                }
+                if (isBlack(sib.left) && isBlack(sib.right)) {
+                    sib.color = true;
+                    node = parent;
+                    parent = node.parent;
+                } else {
+                    if (isBlack(sib.right)) {
+                        sib.left.color = false;
+                        sib.color = true;
+                        rotateRight(sib);
+                        sib = parent.right;
+                    }
+                    sib.color = parent.color;
+                    parent.color = false;
+                    sib.right.color = false;
+                    rotateLeft(parent);
+                    node = root;
+                    parent = null;
+                }
+            } else {
+                Node sib = parent.left;
+                if (isRed(sib)) {
+                    sib.color = false;
+                    parent.color = true;
+                    rotateRight(parent);
+                    sib = parent.left;
+                }
+                if (isBlack(sib.left) && isBlack(sib.right)) {
+                    sib.color = true;
+                    node = parent;
+                    parent = node.parent;
+                } else {
+                    if (isBlack(sib.left)) {
+                        sib.right.color = false;
+                        sib.color = true;
+                        rotateLeft(sib);
+                        sib = parent.left;
+                    }
+                    sib.color = parent.color;
+                    parent.color = false;
+                    sib.left.color = false;
+                    rotateRight(parent);
+                    node = root;
+                    parent = null;
+                }
+            }
+        }
+        if (node != null) {
+            node.color = false;
+        }
+    }
+
+    /**
+     * Rotate left.
+     *
+     * @param node base of rotation; its right child takes its place
+     */
+    private void rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        if (pivot.left != null) {
+            pivot.left.parent = node;
+        }
+        transplant(node, pivot);
+        pivot.left = node;
+        node.parent = pivot;
+        update(node);
+        update(pivot);
+    }
+
+    /**
+     * Rotate right.
+     *
+     * @param node base of rotation; its left child takes its place
+     */
+    private void rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        if (pivot.right != null) {
+            pivot.right.parent = node;
+        }
+        transplant(node, pivot);
+        pivot.right = node;
+        node.parent = pivot;
+        update(node);
+        update(pivot);
+    }
+
+    /**
+     * Find a node by key.
+     *
+     * @param key of node to find
+     * @return node if found, null if not
+     */
+    Node find(long key) {
+        Node node = root;
+        while (node != null && key != node.key) {
+            node = key < node.key ? node.left : node.right;
+        }
+
+        return node;
+    }
+
+    /**
+     * Find the node with the smallest key greater than or equal to the given key.
+     *
+     * @param key lower bound
+     * @return node if found, null if every key is smaller
+     */
+    Node ceiling(long key) {
+        Node node = root;
+        Node best = null;
+        while (node != null) {
+            if (key == node.key) {
+                return node;
+            }
+            if (key < node.key) {
+                best = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Find the node with the largest key less than or equal to the given key.
+     *
+     * @param key upper bound
+     * @return node if found, null if every key is larger
+     */
+    Node floor(long key) {
+        Node node = root;
+        Node best = null;
+        while (node != null) {
+            if (key == node.key) {
+                return node;
+            }
+            if (key > node.key) {
+                best = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Find the node with the smallest key greater than or equal to the given key among nodes
+     * whose weight is at least minWeight. Subtrees whose maxWeight is too small are skipped, so
+     * this walks one search path and then at most one more root-to-leaf path: O(log n).
+     *
+     * @param key       lower bound
+     * @param minWeight smallest weight to accept
+     * @return node if found, null if no node at or after key is heavy enough
+     */
+    Node ceiling(long key, long minWeight) {
+        Node node = root;
+        Node best = null;  // last node at or after key that is, or has a right subtree with, a match
+        while (node != null && node.maxWeight >= minWeight) {
+            if (key <= node.key) {
+                if (weight(node.value) >= minWeight || (node.right != null && node.right.maxWeight >= minWeight)) {
+                    best = node;
+                }
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        if (best == null || weight(best.value) >= minWeight) {
+            return best;
+        }
+
+        node = best.right;
+        while (true) {
+            if (node.left != null && node.left.maxWeight >= minWeight) {
+                node = node.left;
+            } else if (weight(node.value) >= minWeight) {
+                return node;
+            } else {
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Find the node with the largest key less than or equal to the given key among nodes
+     * whose weight is at least minWeight, in O(log n).
+     *
+     * @param key       upper bound
+     * @param minWeight smallest weight to accept
+     * @return node if found, null if no node at or before key is heavy enough
+     */
+    Node floor(long key, long minWeight) {
+        Node node = root;
+        Node best = null;  // last node at or before key that is, or has a left subtree with, a match
+        while (node != null && node.maxWeight >= minWeight) {
+            if (key >= node.key) {
+                if (weight(node.value) >= minWeight || (node.left != null && node.left.maxWeight >= minWeight)) {
+                    best = node;
+                }
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        if (best == null || weight(best.value) >= minWeight) {
+            return best;
+        }
+
+        node = best.left;
+        while (true) {
+            if (node.right != null && node.right.maxWeight >= minWeight) {
+                node = node.right;
+            } else if (weight(node.value) >= minWeight) {
+                return node;
+            } else {
+                node = node.left;
+            }
+        }
+    }
+
+    /**
+     * Returns data from a node.
+     *
+     * @param key of node
+     * @return the node's data
+     */
+    public E getValue(long key) {
+        Node loc = find(key);
+        if (loc == null) {
+            return null;
+        }
+
+        return loc.value;
+    }
+
+    /**
+     * Returns the value with exactly k smaller keys.
+     *
+     * @param k zero-based position in key order
+     * @return the value, or null if k is out of range
+     */
+    public E select(int k) {
+        if (k < 0 || k >= size) {
+            return null;
+        }
+        Node node = root;
+        while (true) {
+            int leftCount = node.left == null ? 0 : node.left.count;
+            if (k < leftCount) {
+                node = node.left;
+            } else if (k == leftCount) {
+                return node.value;
+            } else {
+                k -= leftCount + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys smaller than the given key.
+     *
+     * @param key any key, present or not
+     * @return zero-based position the key has or would have
+     */
+    public int rank(long key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (key <= node.key) {
+                node = node.left;
+            } else {
+                rank += 1 + (node.left == null ? 0 : node.left.count);
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the total weight of values whose keys are below a bound.
+     *
+     * @param key       the bound
+     * @param inclusive whether a key equal to the bound counts
+     * @return total weight
+     */
+    private long sumBelow(long key, boolean inclusive) {
+        long sum = 0;
+        Node node = root;
+        while (node != null) {
+            if (key < node.key || (key == node.key && !inclusive)) {
+                node = node.left;
+            } else {
+                sum += weight(node.value) + (node.left == null ? 0 : node.left.weightSum);
+                node = node.right;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the total weight of values whose keys fall in a closed range.
+     *
+     * @param lo smallest key to include
+     * @param hi largest key to include
+     * @return total weight, or 0 if the range is empty
+     */
+    public long sumInRange(long lo, long hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        return sumBelow(hi, true) - sumBelow(lo, false);
+    }
+
+    /**
+     * Returns the number of keys in a closed range.
+     *
+     * @param lo smallest key to include
+     * @param hi largest key to include
+     * @return count, or 0 if the range is empty
+     */
+    public int countInRange(long lo, long hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        int upper = hi == Long.MAX_VALUE ? size : rank(hi + 1);
+        return upper - rank(lo);
+    }
+
+    /**
+     * Returns the total weight of every value in the tree.
+     *
+     * @return total weight
+     */
+    public long getWeightSum() {
+        return root == null ? 0 : root.weightSum;
+    }
+
+    /**
+     * Iterates over the values in key order. The tree must not be modified while iterating.
+     *
+     * @return an in-order iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Node next = leftmost(root);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Node current = next;
+                if (current.right != null) {
+                    next = leftmost(current.right);
+                } else {
+                    Node child = current;
+                    next = current.parent;
+                    while (next != null && child == next.right) {
+                        child = next;
+                        next = next.parent;
+                    }
+                }
+                return current.value;
+            }
+        };
+    }
+
+    /**
+     * Find the node with the smallest key in a subtree.
+     *
+     * @param node subtree root; may be null
+     * @return leftmost node, or null for an empty subtree
+     */
+    private Node leftmost(Node node) {
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    /**
+     * Returns whether the RBT is empty or not.
+     *
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the depth of the node.
+     *
+     * @param key of node
+     * @return depth of node or 0
+     */
+    public int getDepth(long key) {
+        Node node = find(key);
+        if (node == null) {
+            return 0;
+        }
+        return node.getDepth();
+    }
+
+    /**
+     * Check the red color of a node.
+     *
+     * @param node
+     * @return red or not
+     */
+    private boolean isRed(Node node) {
+        return node != null && node.color; // Red is true
+    }
+
+    /**
+     * Check the black color of a node.
+     *
+     * @param node
+     * @return black or not
+     */
+    private boolean isBlack(Node node) {
+        return node == null || !node.color; // Black is false, and null leaves are black
+    }
+
+    /**
+     * Remove every node.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Get size of RBT.
+     *
+     * @return size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Checks every Red-Black property, mirroring {@link RedBlackTree#validateRedBlackTree()}.
+     *
+     * @return true if the tree is a valid RBT
+     */
+    public boolean validateRedBlackTree() {
+        // Rule 2: Root must be black
+        if (root == null) {
+            return true; // An empty tree is trivially a valid Red-Black Tree
+        }
+        if (isRed(root)) {
+            return false; // Root must be black
+        }
+
+        return blackHeight(root) != -1;
+    }
+
+    /**
+     * Helper that returns the black height of a subtree, or -1 if any rule is broken below it.
+     *
+     * @param node subtree root
+     * @return black height or -1
+     */
+    private int blackHeight(Node node) {
+        // Rule 3: Null leaves are black
+        if (node == null) {
+            return 0;
+        }
+
+        // Rule 4: If a node is red, its children must be black
+        if (isRed(node) && (isRed(node.left) || isRed(node.right))) {
+            return -1;
+        }
+        if ((node.left != null && (node.left.parent != node || node.left.key >= node.key))
+                || (node.right != null && (node.right.parent != node || node.right.key <= node.key))) {
+            return -1; // links or ordering broken
+        }
+        long max = weight(node.value);
+        long sum = max;
+        int count = 1;
+        if (node.left != null) {
+            max = Math.max(max, node.left.maxWeight);
+            sum += node.left.weightSum;
+            count += node.left.count;
+        }
+        if (node.right != null) {
+            max = Math.max(max, node.right.maxWeight);
+            sum += node.right.weightSum;
+            count += node.right.count;
+        }
+        if (max != node.maxWeight || sum != node.weightSum || count != node.count) {
+            return -1; // stale augmentation
+        }
+
+        // Rule 5: Every path has the same black count
+        int left = blackHeight(node.left);
+        int right = blackHeight(node.right);
+        if (left == -1 || right == -1 || left != right) {
+            return -1;
+        }
+        return left + (isBlack(node) ? 1 : 0);
+    }
+}
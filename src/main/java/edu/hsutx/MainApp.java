@@ -3,8 +3,8 @@ package edu.hsutx;
 public class MainApp {
 
     public static void main(String[] args) {
-        // Initialize the model (CowboySeatTree)
-        CowboySeatTree seatTree = new CowboySeatTree();
+        // Initialize the model (CowboySeatTree); the persistent backend lets the view read old versions safely
+        CowboySeatTree seatTree = new CowboySeatTree(CowboySeatTree.Backend.PERSISTENT);
 
         // Initialize the view (Swing-based GUI)
         SwingView view = new SwingView();
@@ -0,0 +1,158 @@
+package edu.hsutx;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing index from owner name to that owner's reservations, in booking order.
+ *
+ * Owners are found by linear probing on the name's cached hash, with no per-entry node objects;
+ * removing an owner's last booking empties its slot by shifting later entries of the probe run
+ * back, so the table never fills with tombstones. Each owner's bookings sit in a small array that
+ * is almost always one or two long, so finding or removing one booking is O(1) in practice.
+ */
+final class OwnerIndex {
+    private static final int INITIAL_SLOTS = 1024;
+
+    private String[] owners = new String[INITIAL_SLOTS];
+    private SeatAssignment[][] bookings = new SeatAssignment[INITIAL_SLOTS][];
+    private int[] counts = new int[INITIAL_SLOTS];
+    private int size;
+
+    /**
+     * Records a new booking as its owner's latest.
+     *
+     * @param reservation A reserved block.
+     */
+    void add(SeatAssignment reservation) {
+        int slot = find(reservation.getOwner());
+        if (owners[slot] == null) {
+            owners[slot] = reservation.getOwner();
+            bookings[slot] = new SeatAssignment[2];
+            if (++size * 2 > owners.length) {
+                grow();
+                slot = find(reservation.getOwner());
+            }
+        }
+        SeatAssignment[] list = bookings[slot];
+        if (counts[slot] == list.length) {
+            list = bookings[slot] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[counts[slot]++] = reservation;
+    }
+
+    /**
+     * Removes one booking.
+     *
+     * @param reservation The booking, as stored.
+     * @return true if it was in the index.
+     */
+    boolean remove(SeatAssignment reservation) {
+        int slot = find(reservation.getOwner());
+        if (owners[slot] == null) return false;
+        SeatAssignment[] list = bookings[slot];
+        int count = counts[slot];
+        for (int i = count - 1; i >= 0; i--) {
+            if (list[i] == reservation) {
+                System.arraycopy(list, i + 1, list, i, count - i - 1);
+                list[--counts[slot]] = null;
+                if (counts[slot] == 0) {
+                    removeSlot(slot);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets an owner's most recent booking.
+     *
+     * @param owner The owner's name.
+     * @return The booking, or null if the owner holds none.
+     */
+    SeatAssignment latest(String owner) {
+        int slot = find(owner);
+        return owners[slot] == null ? null : bookings[slot][counts[slot] - 1];
+    }
+
+    /**
+     * Gets every booking an owner holds.
+     *
+     * @param owner The owner's name.
+     * @return The bookings, oldest first; empty if there are none.
+     */
+    SeatAssignment[] all(String owner) {
+        int slot = find(owner);
+        return owners[slot] == null ? new SeatAssignment[0] : Arrays.copyOf(bookings[slot], counts[slot]);
+    }
+
+    /**
+     * Gets the number of owners holding at least one booking.
+     *
+     * @return The owner count.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds an owner's slot, or the empty slot where it would go.
+     *
+     * @param owner The owner's name.
+     * @return The slot.
+     */
+    private int find(String owner) {
+        int mask = owners.length - 1;
+        int slot = mix(owner.hashCode()) & mask;
+        while (owners[slot] != null && !owners[slot].equals(owner)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot and moves later entries of its probe run back so every lookup still finds them.
+     *
+     * @param slot The slot to empty.
+     */
+    private void removeSlot(int slot) {
+        int mask = owners.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (owners[next] != null) {
+            int home = mix(owners[next].hashCode()) & mask;
+            // Move the entry back unless its home lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                owners[hole] = owners[next];
+                bookings[hole] = bookings[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        owners[hole] = null;
+        bookings[hole] = null;
+        counts[hole] = 0;
+        size--;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        String[] oldOwners = owners;
+        SeatAssignment[][] oldBookings = bookings;
+        int[] oldCounts = counts;
+        owners = new String[oldOwners.length * 2];
+        bookings = new SeatAssignment[owners.length][];
+        counts = new int[owners.length];
+        for (int i = 0; i < oldOwners.length; i++) {
+            if (oldOwners[i] == null) continue;
+            int slot = find(oldOwners[i]);
+            owners[slot] = oldOwners[i];
+            bookings[slot] = oldBookings[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+}
@@ -0,0 +1,705 @@
+package edu.hsutx;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A persistent (copy-on-write) Red-Black Tree keyed by a primitive long.
+ * Follows the same properties as {@link LongRedBlackTree}, with the same subtree count and
+ * weight augmentations, but nodes are immutable and have no parent pointers. Each node also
+ * records its subtree's height, so a viewer can size a drawing of any version in O(1).
+ *
+ * An insert or delete never changes an existing node. It copies only the nodes on the path from
+ * the root to the change, O(log n) of them, shares every other subtree with the previous version,
+ * and then publishes the new root through a volatile field. A reader that takes
+ * {@link #getRoot()} therefore holds a complete, consistent version of the tree that later updates
+ * never touch, on any thread and without locking. Updates themselves must come from one thread at
+ * a time.
+ *
+ * Insertion and deletion follow the functional formulation by Kahrs ("Red-black trees with types",
+ * JFP 2001): rebalancing is done by rebuilding nodes on the way back up instead of by rotations.
+ */
+public class PersistentLongRedBlackTree<E> implements Iterable<E> {
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    /**
+     * An immutable node. Every field is fixed at construction, so a node can be shared by many
+     * versions of the tree and read from any thread.
+     */
+    public static final class Node<E> {
+        public final long key;
+        public final E value;
+        public final Node<E> left;
+        public final Node<E> right;
+        public final boolean color; // true = red, false = black
+        public final long maxWeight; // largest weight in this subtree
+        public final long weightSum; // total weight in this subtree
+        public final int count;      // number of nodes in this subtree
+        public final int height;     // number of levels in this subtree
+
+        Node(long key, E value, Node<E> left, Node<E> right, boolean color, long maxWeight, long weightSum, int count,
+             int height) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.color = color;
+            this.maxWeight = maxWeight;
+            this.weightSum = weightSum;
+            this.count = count;
+            this.height = height;
+        }
+    }
+
+    /**
+     * The current version.
+     */
+    private volatile Node<E> root;
+
+    /**
+     * The value the running delete removed; only the writer touches it.
+     */
+    private E deleted;
+
+    /**
+     * Weight of a value for the maxWeight and weightSum augmentations.
+     * Subclasses override this; the default gives every value a weight of 0.
+     *
+     * @param value a stored value
+     * @return its weight
+     */
+    protected long weight(E value) {
+        return 0;
+    }
+
+    /**
+     * Gets the current version of the tree. The returned root, and everything under it, never changes.
+     *
+     * @return the root of the current version, or null if the tree is empty
+     */
+    public Node<E> getRoot() {
+        return root;
+    }
+
+    /**
+     * Builds a node, computing its augmentations from its children.
+     */
+    private Node<E> node(boolean color, Node<E> left, long key, E value, Node<E> right) {
+        long weight = weight(value);
+        long maxWeight = weight;
+        long weightSum = weight;
+        int count = 1;
+        int height = 0;
+        if (left != null) {
+            maxWeight = Math.max(maxWeight, left.maxWeight);
+            weightSum += left.weightSum;
+            count += left.count;
+            height = left.height;
+        }
+        if (right != null) {
+            maxWeight = Math.max(maxWeight, right.maxWeight);
+            weightSum += right.weightSum;
+            count += right.count;
+            height = Math.max(height, right.height);
+        }
+        return new Node<>(key, value, left, right, color, maxWeight, weightSum, count, height + 1);
+    }
+
+    /**
+     * Returns a node with a given color, copying it only if the color changes.
+     */
+    private static <E> Node<E> paint(Node<E> node, boolean color) {
+        if (node.color == color) {
+            return node;
+        }
+        return new Node<>(node.key, node.value, node.left, node.right, color, node.maxWeight, node.weightSum, node.count, node.height);
+    }
+
+    private static boolean isRed(Node<?> node) {
+        return node != null && node.color;
+    }
+
+    private static boolean isBlackNode(Node<?> node) {
+        return node != null && !node.color;
+    }
+
+    /**
+     * Insert a value. Duplicate keys are ignored.
+     *
+     * @param key   key for this value
+     * @param value the value
+     */
+    public void insert(long key, E value) {
+        Node<E> current = root;
+        Node<E> updated = ins(current, key, value);
+        if (updated != current) {
+            root = paint(updated, BLACK);
+        }
+    }
+
+    /**
+     * Recursive insert that rebuilds the search path.
+     *
+     * @return the new subtree, or the same subtree if the key was already present
+     */
+    private Node<E> ins(Node<E> node, long key, E value) {
+        if (node == null) {
+            return node(RED, null, key, value, null);
+        }
+        if (key < node.key) {
+            Node<E> left = ins(node.left, key, value);
+            if (left == node.left) return node;
+            return node.color == BLACK ? balance(left, node.key, node.value, node.right)
+                    : node(RED, left, node.key, node.value, node.right);
+        }
+        if (key > node.key) {
+            Node<E> right = ins(node.right, key, value);
+            if (right == node.right) return node;
+            return node.color == BLACK ? balance(node.left, node.key, node.value, right)
+                    : node(RED, node.left, node.key, node.value, right);
+        }
+        return node;
+    }
+
+    /**
+     * Builds a black node, or resolves a red child with a red grandchild into a red node with two
+     * black children.
+     */
+    private Node<E> balance(Node<E> a, long key, E value, Node<E> b) {
+        if (isRed(a) && isRed(b)) {
+            return node(RED, paint(a, BLACK), key, value, paint(b, BLACK));
+        }
+        if (isRed(a)) {
+            if (isRed(a.left)) {
+                return node(RED, paint(a.left, BLACK), a.key, a.value, node(BLACK, a.right, key, value, b));
+            }
+            if (isRed(a.right)) {
+                return node(RED, node(BLACK, a.left, a.key, a.value, a.right.left), a.right.key, a.right.value,
+                        node(BLACK, a.right.right, key, value, b));
+            }
+        }
+        if (isRed(b)) {
+            if (isRed(b.right)) {
+                return node(RED, node(BLACK, a, key, value, b.left), b.key, b.value, paint(b.right, BLACK));
+            }
+            if (isRed(b.left)) {
+                return node(RED, node(BLACK, a, key, value, b.left.left), b.left.key, b.left.value,
+                        node(BLACK, b.left.right, b.key, b.value, b.right));
+            }
+        }
+        return node(BLACK, a, key, value, b);
+    }
+
+    /**
+     * Delete a value, in a single walk from the root.
+     *
+     * @param key of value to remove
+     * @return the removed value, or null if not found
+     */
+    public E delete(long key) {
+        Node<E> current = root;
+        Node<E> updated = del(current, key);
+        if (updated == current) {// not found
+            return null;
+        }
+        root = updated == null ? null : paint(updated, BLACK);
+        E removed = deleted;
+        deleted = null;
+        return removed;
+    }
+
+    /**
+     * Recursive delete. A subtree rooted at a black node comes back one black level short and is
+     * fixed up by balanceLeft or balanceRight. A subtree without the key comes back as the same
+     * node, so a missing key copies nothing.
+     */
+    private Node<E> del(Node<E> node, long key) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.key) {
+            Node<E> left = del(node.left, key);
+            if (left == node.left) return node;
+            return isBlackNode(node.left) ? balanceLeft(left, node.key, node.value, node.right)
+                    : node(RED, left, node.key, node.value, node.right);
+        }
+        if (key > node.key) {
+            Node<E> right = del(node.right, key);
+            if (right == node.right) return node;
+            return isBlackNode(node.right) ? balanceRight(node.left, node.key, node.value, right)
+                    : node(RED, node.left, node.key, node.value, right);
+        }
+        deleted = node.value;
+        return fuse(node.left, node.right);
+    }
+
+    /**
+     * Rebuilds a node whose left subtree is one black level short.
+     */
+    private Node<E> balanceLeft(Node<E> left, long key, E value, Node<E> right) {
+        if (isRed(left)) {
+            return node(RED, paint(left, BLACK), key, value, right);
+        }
+        if (isBlackNode(right)) {
+            return balance(left, key, value, paint(right, RED));
+        }
+        if (isRed(right) && isBlackNode(right.left)) {
+            return node(RED, node(BLACK, left, key, value, right.left.left), right.left.key, right.left.value,
+                    balance(right.left.right, right.key, right.value, paint(right.right, RED)));
+        }
+        throw new IllegalStateException("Red-Black invariant violated");
+    }
+
+    /**
+     * Rebuilds a node whose right subtree is one black level short.
+     */
+    private Node<E> balanceRight(Node<E> left, long key, E value, Node<E> right) {
+        if (isRed(right)) {
+            return node(RED, left, key, value, paint(right, BLACK));
+        }
+        if (isBlackNode(left)) {
+            return balance(paint(left, RED), key, value, right);
+        }
+        if (isRed(left) && isBlackNode(left.right)) {
+            return node(RED, balance(paint(left.left, RED), left.key, left.value, left.right.left),
+                    left.right.key, left.right.value, node(BLACK, left.right.right, key, value, right));
+        }
+        throw new IllegalStateException("Red-Black invariant violated");
+    }
+
+    /**
+     * Joins the two subtrees of a deleted node, every key of the left one being smaller.
+     */
+    private Node<E> fuse(Node<E> left, Node<E> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (isRed(left) && isRed(right)) {
+            Node<E> middle = fuse(left.right, right.left);
+            if (isRed(middle)) {
+                return node(RED, node(RED, left.left, left.key, left.value, middle.left), middle.key, middle.value,
+                        node(RED, middle.right, right.key, right.value, right.right));
+            }
+            return node(RED, left.left, left.key, left.value, node(RED, middle, right.key, right.value, right.right));
+        }
+        if (isRed(right)) {
+            return node(RED, fuse(left, right.left), right.key, right.value, right.right);
+        }
+        if (isRed(left)) {
+            return node(RED, left.left, left.key, left.value, fuse(left.right, right));
+        }
+        Node<E> middle = fuse(left.right, right.left);
+        if (isRed(middle)) {
+            return node(RED, node(BLACK, left.left, left.key, left.value, middle.left), middle.key, middle.value,
+                    node(BLACK, middle.right, right.key, right.value, right.right));
+        }
+        return balanceLeft(left.left, left.key, left.value, node(BLACK, middle, right.key, right.value, right.right));
+    }
+
+    /**
+     * Build an empty tree from keys that are already in strictly increasing order, in O(n).
+     *
+     * @param keys   keys in strictly increasing order
+     * @param values value for each key
+     * @param count  number of entries to load from the arrays
+     * @throws IllegalStateException    if the tree is not empty
+     * @throws IllegalArgumentException if the keys are not strictly increasing
+     */
+    public void bulkLoad(long[] keys, E[] values, int count) {
+        if (!isEmpty()) {
+            throw new IllegalStateException("bulkLoad requires an empty tree");
+        }
+        for (int i = 1; i < count; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("keys must be strictly increasing at index " + i);
+            }
+        }
+        int redDepth = 31 - Integer.numberOfLeadingZeros(count + 1);
+        root = build(keys, values, 0, count - 1, 0, redDepth);
+    }
+
+    /**
+     * Recursive helper for bulkLoad that builds one balanced subtree bottom-up.
+     */
+    private Node<E> build(long[] keys, E[] values, int lo, int hi, int depth, int redDepth) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<E> left = build(keys, values, lo, mid - 1, depth + 1, redDepth);
+        Node<E> right = build(keys, values, mid + 1, hi, depth + 1, redDepth);
+        return node(depth == redDepth, left, keys[mid], values[mid], right);
+    }
+
+    /**
+     * Finds a key within a version.
+     */
+    private static <E> Node<E> find(Node<E> node, long key) {
+        while (node != null && node.key != key) {
+            node = key < node.key ? node.left : node.right;
+        }
+        return node;
+    }
+
+    /**
+     * Returns data from a node.
+     *
+     * @param key of node
+     * @return the node's data, or null if not found
+     */
+    public E getValue(long key) {
+        Node<E> node = find(root, key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the value with the smallest key greater than or equal to the given key.
+     *
+     * @param key lower bound
+     * @return the value, or null if every key is smaller
+     */
+    public E ceilingValue(long key) {
+        Node<E> node = root;
+        Node<E> best = null;
+        while (node != null) {
+            if (node.key == key) return node.value;
+            if (key < node.key) {
+                best = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best == null ? null : best.value;
+    }
+
+    /**
+     * Returns the value with the largest key less than or equal to the given key.
+     *
+     * @param key upper bound
+     * @return the value, or null if every key is larger
+     */
+    public E floorValue(long key) {
+        Node<E> node = root;
+        Node<E> best = null;
+        while (node != null) {
+            if (node.key == key) return node.value;
+            if (key > node.key) {
+                best = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best == null ? null : best.value;
+    }
+
+    /**
+     * Returns the value with the smallest key greater than or equal to the given key among values
+     * whose weight is at least minWeight, skipping subtrees whose maxWeight is too small.
+     *
+     * @param key       lower bound
+     * @param minWeight smallest weight to accept
+     * @return the value, or null if no value at or after key is heavy enough
+     */
+    public E ceilingValue(long key, long minWeight) {
+        Node<E> node = root;
+        Node<E> best = null;
+        while (node != null && node.maxWeight >= minWeight) {
+            if (key <= node.key) {
+                if (weight(node.value) >= minWeight || (node.right != null && node.right.maxWeight >= minWeight)) {
+                    best = node;
+                }
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        if (best == null || weight(best.value) >= minWeight) {
+            return best == null ? null : best.value;
+        }
+
+        node = best.right;
+        while (true) {
+            if (node.left != null && node.left.maxWeight >= minWeight) {
+                node = node.left;
+            } else if (weight(node.value) >= minWeight) {
+                return node.value;
+            } else {
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the value with the largest key less than or equal to the given key among values
+     * whose weight is at least minWeight, skipping subtrees whose maxWeight is too small.
+     *
+     * @param key       upper bound
+     * @param minWeight smallest weight to accept
+     * @return the value, or null if no value at or before key is heavy enough
+     */
+    public E floorValue(long key, long minWeight) {
+        Node<E> node = root;
+        Node<E> best = null;
+        while (node != null && node.maxWeight >= minWeight) {
+            if (key >= node.key) {
+                if (weight(node.value) >= minWeight || (node.left != null && node.left.maxWeight >= minWeight)) {
+                    best = node;
+                }
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        if (best == null || weight(best.value) >= minWeight) {
+            return best == null ? null : best.value;
+        }
+
+        node = best.left;
+        while (true) {
+            if (node.right != null && node.right.maxWeight >= minWeight) {
+                node = node.right;
+            } else if (weight(node.value) >= minWeight) {
+                return node.value;
+            } else {
+                node = node.left;
+            }
+        }
+    }
+
+    /**
+     * Returns the value with exactly k smaller keys.
+     *
+     * @param k zero-based position in key order
+     * @return the value, or null if k is out of range
+     */
+    public E select(int k) {
+        Node<E> node = root;
+        if (k < 0 || node == null || k >= node.count) {
+            return null;
+        }
+        while (true) {
+            int leftCount = node.left == null ? 0 : node.left.count;
+            if (k < leftCount) {
+                node = node.left;
+            } else if (k == leftCount) {
+                return node.value;
+            } else {
+                k -= leftCount + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys smaller than the given key.
+     *
+     * @param key any key, present or not
+     * @return zero-based position the key has or would have
+     */
+    public int rank(long key) {
+        return rank(root, key);
+    }
+
+    private static int rank(Node<?> node, long key) {
+        int rank = 0;
+        while (node != null) {
+            if (key <= node.key) {
+                node = node.left;
+            } else {
+                rank += 1 + (node.left == null ? 0 : node.left.count);
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the total weight of values whose keys are below a bound.
+     */
+    private long sumBelow(Node<E> node, long key, boolean inclusive) {
+        long sum = 0;
+        while (node != null) {
+            if (key < node.key || (key == node.key && !inclusive)) {
+                node = node.left;
+            } else {
+                sum += weight(node.value) + (node.left == null ? 0 : node.left.weightSum);
+                node = node.right;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the total weight of values whose keys fall in a closed range.
+     *
+     * @param lo smallest key to include
+     * @param hi largest key to include
+     * @return total weight, or 0 if the range is empty
+     */
+    public long sumInRange(long lo, long hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        Node<E> version = root;
+        return sumBelow(version, hi, true) - sumBelow(version, lo, false);
+    }
+
+    /**
+     * Returns the number of keys in a closed range.
+     *
+     * @param lo smallest key to include
+     * @param hi largest key to include
+     * @return count, or 0 if the range is empty
+     */
+    public int countInRange(long lo, long hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        Node<E> version = root;
+        int upper = hi == Long.MAX_VALUE ? (version == null ? 0 : version.count) : rank(version, hi + 1);
+        return upper - rank(version, lo);
+    }
+
+    /**
+     * Returns the total weight of every value in the tree.
+     *
+     * @return total weight
+     */
+    public long getWeightSum() {
+        Node<E> version = root;
+        return version == null ? 0 : version.weightSum;
+    }
+
+    /**
+     * Returns the largest weight of any value in the tree.
+     *
+     * @return largest weight, or 0 if empty
+     */
+    public long maxWeight() {
+        Node<E> version = root;
+        return version == null ? 0 : version.maxWeight;
+    }
+
+    /**
+     * Iterates over the values of the current version in key order. Later updates do not affect
+     * an iterator that has already been created.
+     *
+     * @return an in-order iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return values(root);
+    }
+
+    /**
+     * Iterates over the values of one version in key order.
+     *
+     * @param version a root returned by {@link #getRoot()}, or null
+     * @return an in-order iterator
+     */
+    public static <E> Iterator<E> values(Node<E> version) {
+        return new Iterator<E>() {
+            // A red-black tree of n nodes is at most 2 log2(n + 1) deep, which is under 64.
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            private final Node<E>[] stack = (Node<E>[]) new Node[64];
+            private int depth;
+
+            {
+                pushLeft(version);
+            }
+
+            private void pushLeft(Node<E> node) {
+                while (node != null) {
+                    stack[depth++] = node;
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public E next() {
+                if (depth == 0) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = stack[--depth];
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    /**
+     * Returns whether the RBT is empty or not.
+     *
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Remove every node. Versions handed out earlier are unaffected.
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Get size of RBT.
+     *
+     * @return size
+     */
+    public int getSize() {
+        Node<E> version = root;
+        return version == null ? 0 : version.count;
+    }
+
+    /**
+     * Checks every Red-Black property, the ordering, and the augmentations of the current version.
+     *
+     * @return true if the tree is a valid RBT
+     */
+    public boolean validateRedBlackTree() {
+        Node<E> version = root;
+        if (version == null) {
+            return true;
+        }
+        if (isRed(version)) {
+            return false; // Root must be black
+        }
+        return blackHeight(version) != -1;
+    }
+
+    /**
+     * Helper that returns the black height of a subtree, or -1 if any rule is broken below it.
+     */
+    private int blackHeight(Node<E> node) {
+        if (node == null) {
+            return 0;
+        }
+        if (isRed(node) && (isRed(node.left) || isRed(node.right))) {
+            return -1;
+        }
+        if ((node.left != null && node.left.key >= node.key) || (node.right != null && node.right.key <= node.key)) {
+            return -1;
+        }
+        Node<E> expected = node(node.color, node.left, node.key, node.value, node.right);
+        if (expected.maxWeight != node.maxWeight || expected.weightSum != node.weightSum || expected.count != node.count
+                || expected.height != node.height) {
+            return -1; // stale augmentation
+        }
+
+        int left = blackHeight(node.left);
+        int right = blackHeight(node.right);
+        if (left == -1 || right == -1 || left != right) {
+            return -1;
+        }
+        return left + (isRed(node) ? 0 : 1);
+    }
+}
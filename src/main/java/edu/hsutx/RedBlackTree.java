@@ -94,6 +94,12 @@ public class RedBlackTree<E> {
         }
     }
 
+    /**
+     * The one black leaf shared by every node in this tree. Its fields are
+     * never written, so it can stand in for any empty child.
+     */
+    private final Node nil = new Node(null, null, null, false);
+
     /**
      * Initialize an empty RBT.
      * 
@@ -101,7 +107,7 @@ public class RedBlackTree<E> {
     public RedBlackTree() {
         root = null;
         // Start with an empty tree. This is the one time we can have a null ptr instead
-        // of a null key node
+        // of the nil node
         size = 0;
     }
 
@@ -112,31 +118,40 @@ public class RedBlackTree<E> {
      * @param value data for this node
      */
     public void insert(String key, E value) {
-        Node loc = find(key);
-        if (loc == null) {// first insertion - root
-            root = new Node(key, value, null, false);
-            root.left = new Node(null, null, root, false);
-            root.right = new Node(null, null, root, false);
-            return;
+        Node par = null;
+        Node node = root == null ? nil : root;
+        int cmp = 0;
+        while (node != nil) {
+            cmp = compareKeys(key, node.key);
+            if (cmp == 0) {// duplicate
+                return;
+            }
+            par = node;
+            node = cmp < 0 ? node.left : node.right;
         }
 
-        if (loc.key != null) {// duplicate
+        Node loc = new Node(key, value, par, true);// insert as red with nil children
+        loc.left = nil;
+        loc.right = nil;
+        size++;
+        if (par == null) {// first insertion - root
+            root = loc;
+            root.color = false;
             return;
         }
-
-        loc.key = key;// insert as red with null node children
-        loc.value = value;
-        loc.color = true;
-        loc.left = new Node(null, null, loc, false);
-        loc.right = new Node(null, null, loc, false);
-        size++;
+        if (cmp < 0) {
+            par.left = loc;
+        } else {
+            par.right = loc;
+        }
         if (isRed(loc.parent)) {// fix to maintain RBT properties
-            fix(loc, false);
+            fixInsert(loc);
         }
     }
 
     /**
-     * Delete a node.
+     * Delete a node. A node with two children is replaced by its successor,
+     * which is unlinked in place rather than looked up again from the root.
      * 
      * @param key of node to remove
      */
@@ -146,202 +161,199 @@ public class RedBlackTree<E> {
             return;
         }
 
-        if (loc.left.key == null && loc.right.key == null) {// no children
-            if (loc == root) {
-                root = null;
-                size = 0;
-                return;
-            }
-            loc.left = null;
-            loc.right = null;
-            loc.key = null;
-            loc.value = null;
-            loc.color = false;
-        } else if (loc.left.key == null) {// right child only
-            if (loc == root) {
-                root = loc.right;
-            } else {
-                if (loc.parent.right == loc) {
-                    loc.parent.right = loc.right;
-                } else {
-                    loc.parent.left = loc.right;
-                }
-                loc.right.parent = loc.parent;
-            }
-            fix(loc.right, true);
-        } else if (loc.right.key == null) {// left child only
-            if (loc == root) {
-                root = loc.left;
-            } else {
-                if (loc.parent.right == loc) {
-                    loc.parent.right = loc.left;
-                } else {
-                    loc.parent.left = loc.left;
-                }
-                loc.left.parent = loc.parent;
-            }
-            fix(loc.left, true);
-        } else if (loc.left.key != null && loc.right.key != null) {// two children
+        Node child;
+        Node par;
+        boolean removedBlack;
+        if (loc.left != nil && loc.right != nil) {// two children
             Node successor = loc.right;
-            while (successor.left.key != null) {
+            while (successor.left != nil) {
                 successor = successor.left;
             }
-            E srValue = successor.value;
-            String srKey = successor.key;
-            delete(successor.key);
-            loc.value = srValue;
-            loc.key = srKey;
-            fix(loc, true);
+            removedBlack = !successor.color;
+            child = successor.right;
+            if (successor.parent == loc) {
+                par = successor;
+            } else {
+                par = successor.parent;
+                replace(successor, successor.right);
+                successor.right = loc.right;
+                successor.right.parent = successor;
+            }
+            replace(loc, successor);
+            successor.left = loc.left;
+            successor.left.parent = successor;
+            successor.color = loc.color;
+        } else {// zero or one child: splice the node out
+            removedBlack = !loc.color;
+            child = loc.left != nil ? loc.left : loc.right;
+            par = loc.parent;
+            replace(loc, child);
         }
         size--;
+        if (removedBlack) {
+            fixDelete(child, par);
+        }
     }
 
     /**
-     * Combined fix for insertions and deletions to maintain RBT properties.
+     * Put one subtree where another used to hang. The nil node's parent is
+     * never touched.
      * 
-     * @param node   node to begin fix from
-     * @param delete fixing a deletion or not
+     * @param out node being replaced
+     * @param in  node taking its place; may be nil
      */
-    private void fix(Node node, boolean delete) {
-        Node par = node.parent;
-        Node gp = node.parent.parent;
-        if (par == root) {// end recursion
-            return;
+    private void replace(Node out, Node in) {
+        if (out.parent == null) {
+            root = in == nil ? null : in;
+        } else if (out.parent.left == out) {
+            out.parent.left = in;
+        } else {
+            out.parent.right = in;
         }
-        if (delete && node.left.key == null && node.right.key == null) {// flip color of childless node
-            node.color = !node.color;
-            return;
+        if (in != nil) {
+            in.parent = out.parent;
         }
+    }
 
-        Node unc = null;
-        boolean isNewNodeLeftChild = par.left == node;
-        boolean isZigZag = false;
-        if (gp != null) {
-            if (gp.left == par) {// setting up proper rotation scheme
-                isZigZag = !isNewNodeLeftChild;
-                if (gp.right.key != null) {
-                    unc = gp.right;
-                }
+    /**
+     * Fix for insertions to maintain RBT properties, walking up the tree
+     * while a red node has a red parent.
+     * 
+     * @param node red node whose parent is red
+     */
+    private void fixInsert(Node node) {
+        while (node.parent != null && isRed(node.parent)) {
+            Node par = node.parent;
+            Node gp = par.parent;
+            boolean parIsLeftChild = gp.left == par;
+            Node unc = parIsLeftChild ? gp.right : gp.left;
+
+            if (isRed(unc)) {// red uncle: recolor and continue from grandparent
+                par.color = false;
+                unc.color = false;
+                gp.color = true;
+                node = gp;
+                continue;
+            }
+
+            // black uncle: a zig-zag becomes a straight line first
+            if (parIsLeftChild && par.right == node) {
+                rotateLeft(par);
+                par = node;
+            } else if (!parIsLeftChild && par.left == node) {
+                rotateRight(par);
+                par = node;
+            }
+            par.color = false;
+            gp.color = true;
+            if (parIsLeftChild) {
+                rotateRight(gp);
             } else {
-                isZigZag = isNewNodeLeftChild;
-                if (gp.left.key != null) {
-                    unc = gp.left;
+                rotateLeft(gp);
+            }
+            break;
+        }
+        root.color = false;
+    }
+
+    /**
+     * Fix for deletions to maintain RBT properties. The node carries an
+     * extra black that is pushed up the tree or resolved by rotation.
+     * 
+     * @param node node holding the extra black; may be nil
+     * @param par  parent of that position, since nil has no parent of its own
+     */
+    private void fixDelete(Node node, Node par) {
+        while (par != null && !isRed(node)) {
+            boolean isLeftChild = par.left == node;
+            Node sib = isLeftChild ? par.right : par.left;
+            if (isRed(sib)) {// red sibling: rotate so the sibling is black
+                sib.color = false;
+                par.color = true;
+                if (isLeftChild) {
+                    rotateLeft(par);
+                    sib = par.right;
+                } else {
+                    rotateRight(par);
+                    sib = par.left;
                 }
             }
-            if (unc != null) {
-                if (isBlack(unc)) {// black uncle
-                    if (isNewNodeLeftChild) {
-                        rotateRight(node, isZigZag);
-                    } else {
-                        rotateLeft(node, isZigZag);
-                    }
-                } else {// red uncle
-                    if (gp == root) {
-                        gp.color = false;
-                    } else {
-                        gp.color = !gp.color;
-                    }
-                    par.color = !par.color;
-                    unc.color = !unc.color;
-                    return;
+
+            if (isBlack(sib.left) && isBlack(sib.right)) {// push the extra black up
+                sib.color = true;
+                node = par;
+                par = node.parent;
+                continue;
+            }
+
+            if (isLeftChild) {
+                if (isBlack(sib.right)) {
+                    sib.left.color = false;
+                    sib.color = true;
+                    rotateRight(sib);
+                    sib = par.right;
                 }
+                sib.color = par.color;
+                par.color = false;
+                sib.right.color = false;
+                rotateLeft(par);
             } else {
-                if (gp == root) {
-                    gp.color = false;
-                } else {
-                    gp.color = !gp.color;
+                if (isBlack(sib.left)) {
+                    sib.right.color = false;
+                    sib.color = true;
+                    rotateLeft(sib);
+                    sib = par.left;
                 }
-                par.color = !par.color;
+                sib.color = par.color;
+                par.color = false;
+                sib.left.color = false;
+                rotateRight(par);
             }
+            node = root;
+            par = null;
+        }
+        if (node != nil) {
+            node.color = false;
         }
-
-        fix(par, delete);
     }
 
     /**
      * Rotate left.
      * 
-     * @param node     base of rotation
-     * @param isZigZag whether rotation is first part of a two-part rotation
+     * @param node base of rotation; its right child takes its place
      */
-    private void rotateLeft(Node node, boolean isZigZag) {
-        Node par = node.parent;
-        Node gp = par.parent;
-        if (isZigZag) {// first part of a two-part rotation != the same rotation standing alone
-            gp.left = node;
-            par.right = node.left;
-            node.left = par;
-            rotateRight(par, false);
-        } else {
-            boolean gpIsRoot = false;
-            if (gp.parent == null) {
-                gpIsRoot = true;
-            }
-            Node alpha = par.left;
-            Node ggp = null;
-            if (gpIsRoot) {
-                root = par;
-            } else {
-                ggp = gp.parent;
-                if (ggp.left == gp) {
-                    ggp.left = par;
-                } else {
-                    ggp.right = par;
-                }
-            }
-            par.color = false;
-            par.left = gp;
-            gp.color = true;
-            gp.right = alpha;
+    private void rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        if (pivot.left != nil) {
+            pivot.left.parent = node;
         }
+        replace(node, pivot);
+        pivot.left = node;
+        node.parent = pivot;
     }
 
     /**
      * Rotate right.
      * 
-     * @param node     base of rotation
-     * @param isZigZag whether rotation is first part of a two-part rotation
+     * @param node base of rotation; its left child takes its place
      */
-    private void rotateRight(Node node, boolean isZigZag) {
-        Node par = node.parent;
-        Node gp = par.parent;
-        if (gp == null) {
-            return;
-        }
-        if (isZigZag) {// two-part rotation
-            gp.right = node;
-            par.left = node.right;
-            node.right = par;
-            rotateLeft(par, false);
-        } else {
-            boolean gpIsRoot = false;
-            if (gp == root) {
-                gpIsRoot = true;
-            }
-            Node alpha = par.right;
-            Node ggp = null;
-            if (gpIsRoot) {
-                root = par;
-            } else {
-                ggp = gp.parent;
-                if (ggp.left == gp) {
-                    ggp.left = par;
-                } else {
-                    ggp.right = par;
-                }
-            }
-            par.color = false;
-            par.right = gp;
-            gp.color = true;
-            gp.left = alpha;
+    private void rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        if (pivot.right != nil) {
+            pivot.right.parent = node;
         }
+        replace(node, pivot);
+        pivot.right = node;
+        node.parent = pivot;
     }
 
     /**
      * Find a node by key.
      * 
      * @param key of node to find
-     * @return node if found, null node if not, null if RBT is empty
+     * @return node if found, the nil node if not, null if RBT is empty
      */
     Node find(String key) {
         if (isEmpty()) {
@@ -349,21 +361,28 @@ public class RedBlackTree<E> {
         }
         Node node = root;
 
-        while (key != node.key) {
-            if (key.compareToIgnoreCase(node.key) < 0) {
-                if (node.left.key == null) {
-                    return node.left;
-                }
-                node = node.left;
-            } else {
-                if (node.right.key == null) {
-                    return node.right;
-                }
-                node = node.right;
+        while (node != nil) {
+            int cmp = compareKeys(key, node.key);
+            if (cmp == 0) {
+                return node;
             }
+            node = cmp < 0 ? node.left : node.right;
         }
 
-        return node;
+        return nil;
+    }
+
+    /**
+     * Orders keys alphabetically without regard to case; keys that differ only in case stay
+     * distinct and are ordered by {@link String#compareTo}.
+     *
+     * @param a first key
+     * @param b second key
+     * @return negative, zero or positive as a sorts before, equal to, or after b
+     */
+    private static int compareKeys(String a, String b) {
+        int cmp = a.compareToIgnoreCase(b);
+        return cmp != 0 ? cmp : a.compareTo(b);
     }
 
     /**
@@ -374,7 +393,7 @@ public class RedBlackTree<E> {
      */
     public E getValue(String key) {
         Node loc = find(key);
-        if (loc == null || loc.key == null || loc.key != key) {
+        if (loc == null || loc.key == null) {
             return null;
         }
 
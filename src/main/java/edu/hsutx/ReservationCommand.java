@@ -0,0 +1,78 @@
+package edu.hsutx;
+
+/**
+ * One command from the reservation log: {@code a,name,seats,preference} to reserve seats,
+ * optionally followed by {@code ,targetSeat} to ask for seats near a particular seat number,
+ * or {@code d,name} to cancel. A single instance is reused for every line a
+ * {@link ReservationCommandReader} decodes, so callers must copy out anything they want to keep
+ * past the next read. The name is pooled by the reader and may be kept.
+ */
+public class ReservationCommand {
+    public static final char ADD = 'a';
+    public static final char DELETE = 'd';
+
+    char type;
+    String name;
+    int seatsNeeded;
+    int preference;
+    int targetSeat;
+
+    /**
+     * Gets the command letter.
+     *
+     * @return ADD or DELETE.
+     */
+    public char getType() {
+        return type;
+    }
+
+    /**
+     * Gets the owner the command applies to.
+     *
+     * @return The owner's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of seats requested. Only meaningful for ADD.
+     *
+     * @return The seat count.
+     */
+    public int getSeatsNeeded() {
+        return seatsNeeded;
+    }
+
+    /**
+     * Gets where in the free block the party wants to sit, from 0 (front) to 100 (back). Only meaningful for ADD.
+     *
+     * @return The preference.
+     */
+    public int getPreference() {
+        return preference;
+    }
+
+    /**
+     * Gets the seat the party wants to sit near. Only meaningful for ADD.
+     *
+     * @return The target seat, or 0 if the command did not name one.
+     */
+    public int getTargetSeat() {
+        return targetSeat;
+    }
+
+    /**
+     * Formats the command the way it appears in the log.
+     *
+     * @return The CSV line, without a line terminator.
+     */
+    @Override
+    public String toString() {
+        if (type == ADD) {
+            String line = type + "," + name + "," + seatsNeeded + "," + preference;
+            return targetSeat > 0 ? line + "," + targetSeat : line;
+        }
+        return type + "," + name;
+    }
+}
@@ -0,0 +1,278 @@
+package edu.hsutx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams commands out of a UTF-16 reservation log without a Reader, a String per line, or a split.
+ *
+ * The file is memory-mapped one window at a time and the characters are decoded straight out of
+ * the mapping into a reused {@link ReservationCommand}: the letter and the numbers become primitive
+ * fields, and the name is looked up in a pool so that an owner who appears many times is only turned
+ * into a String once. A line that runs past the end of a window is handled by remapping from the
+ * start of that line.
+ *
+ * The byte order comes from the byte-order mark; a file without one is read as big-endian,
+ * like the "UTF-16" charset does. Lines may end in LF or CRLF and blank lines are skipped.
+ */
+public class ReservationCommandReader implements Closeable {
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    private final long windowBytes;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final NamePool names = new NamePool();
+    private ByteOrder order = ByteOrder.BIG_ENDIAN;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private long lineNumber;
+    private char[] nameChars = new char[64];
+
+    /**
+     * Opens a log for reading.
+     *
+     * @param path The UTF-16 CSV file.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public ReservationCommandReader(Path path) throws IOException {
+        this(path, WINDOW_BYTES);
+    }
+
+    /**
+     * Opens a log for reading with a given mapping window size.
+     *
+     * @param path        The UTF-16 CSV file.
+     * @param windowBytes How much of the file to map at once; must be even and hold the longest line.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    ReservationCommandReader(Path path, long windowBytes) throws IOException {
+        this.windowBytes = windowBytes;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileSize = channel.size();
+        map(0);
+        if (window.limit() >= 2) {
+            int b0 = window.get(0) & 0xFF;
+            int b1 = window.get(1) & 0xFF;
+            if (b0 == 0xFE && b1 == 0xFF) {
+                position = 2;
+            } else if (b0 == 0xFF && b1 == 0xFE) {
+                order = ByteOrder.LITTLE_ENDIAN;
+                window.order(order);
+                position = 2;
+            }
+        }
+    }
+
+    /**
+     * Decodes the next command into the given object.
+     *
+     * @param command The command to overwrite.
+     * @return true if a command was read, false at the end of the file.
+     * @throws IOException If the file cannot be read or a line is malformed.
+     */
+    public boolean next(ReservationCommand command) throws IOException {
+        int end;
+        int lineEnd;
+        while (true) {
+            if (windowStart + position >= fileSize) return false;
+            end = findLineEnd();
+            lineNumber++;
+            lineEnd = end;
+            if (lineEnd > position && charAt(lineEnd - 2) == '\r') {
+                lineEnd -= 2;
+            }
+            if (lineEnd > position) break;
+            position = end + 2;  // blank line
+        }
+
+        char type = charAt(position);
+        if ((type != ReservationCommand.ADD && type != ReservationCommand.DELETE)
+                || position + 2 >= lineEnd || charAt(position + 2) != ',') {
+            throw malformed();
+        }
+        int p = position + 4;
+
+        int length = 0;
+        while (p < lineEnd) {
+            char c = charAt(p);
+            if (c == ',') break;
+            if (length == nameChars.length) {
+                char[] grown = new char[length * 2];
+                System.arraycopy(nameChars, 0, grown, 0, length);
+                nameChars = grown;
+            }
+            nameChars[length++] = c;
+            p += 2;
+        }
+        if (length == 0) throw malformed();
+
+        command.type = type;
+        command.name = names.intern(nameChars, length);
+        if (type == ReservationCommand.ADD) {
+            if (p >= lineEnd) throw malformed();
+            p += 2;
+            int valueEnd = p;
+            while (valueEnd < lineEnd && charAt(valueEnd) != ',') valueEnd += 2;
+            command.seatsNeeded = parseInt(p, valueEnd);
+            if (command.seatsNeeded <= 0 || valueEnd >= lineEnd) throw malformed();
+            p = valueEnd + 2;
+            valueEnd = p;
+            while (valueEnd < lineEnd && charAt(valueEnd) != ',') valueEnd += 2;
+            command.preference = parseInt(p, valueEnd);
+            command.targetSeat = valueEnd < lineEnd ? parseInt(valueEnd + 2, lineEnd) : 0;
+            if (command.targetSeat < 0) throw malformed();
+        } else {
+            command.seatsNeeded = 0;
+            command.preference = 0;
+            command.targetSeat = 0;
+        }
+
+        position = end + 2;
+        return true;
+    }
+
+    /**
+     * Gets the number of the line the last command came from, counting from 1.
+     *
+     * @return The line number.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Finds the byte offset of the newline that ends the current line, remapping so that the
+     * whole line is inside the window.
+     *
+     * @return The offset of the newline, or of the end of the file if the last line has none.
+     * @throws IOException If remapping fails.
+     */
+    private int findLineEnd() throws IOException {
+        while (true) {
+            int limit = window.limit() - 1;
+            for (int p = position; p < limit; p += 2) {
+                if (window.getChar(p) == '\n') return p;
+            }
+            if (windowStart + window.limit() >= fileSize) {
+                return window.limit() & ~1;
+            }
+            if (position == 0) {
+                throw new IOException("Line " + (lineNumber + 1) + " is longer than " + windowBytes + " bytes");
+            }
+            map(windowStart + position);
+        }
+    }
+
+    /**
+     * Maps the window that starts at a file offset.
+     *
+     * @param start The file offset, which becomes window position 0.
+     * @throws IOException If mapping fails.
+     */
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowBytes, fileSize - start));
+        window.order(order);
+        position = 0;
+    }
+
+    private char charAt(int p) {
+        return window.getChar(p);
+    }
+
+    /**
+     * Parses a decimal integer held in the window.
+     *
+     * @param p   Offset of the first character.
+     * @param end Offset just past the last character.
+     * @return The value.
+     * @throws IOException If the text is not a number.
+     */
+    private int parseInt(int p, int end) throws IOException {
+        boolean negative = p < end && charAt(p) == '-';
+        if (negative) p += 2;
+        if (p >= end) throw malformed();
+        int value = 0;
+        for (; p < end; p += 2) {
+            int digit = charAt(p) - '0';
+            if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) throw malformed();
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private IOException malformed() {
+        return new IOException("Malformed command on line " + lineNumber);
+    }
+
+    /**
+     * Open-addressing set of owner names, looked up by their characters so a repeated name
+     * does not allocate.
+     */
+    private static final class NamePool {
+        private String[] table = new String[1024];
+        private int size;
+
+        String intern(char[] chars, int length) {
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int mask = table.length - 1;
+            int slot = mix(hash) & mask;
+            while (true) {
+                String candidate = table[slot];
+                if (candidate == null) break;
+                if (candidate.hashCode() == hash && matches(candidate, chars, length)) {
+                    return candidate;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            String name = new String(chars, 0, length);
+            table[slot] = name;
+            if (++size * 2 > table.length) {
+                grow();
+            }
+            return name;
+        }
+
+        private static boolean matches(String candidate, char[] chars, int length) {
+            if (candidate.length() != length) return false;
+            for (int i = 0; i < length; i++) {
+                if (candidate.charAt(i) != chars[i]) return false;
+            }
+            return true;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private void grow() {
+            String[] old = table;
+            table = new String[old.length * 2];
+            int mask = table.length - 1;
+            for (String name : old) {
+                if (name == null) continue;
+                int slot = mix(name.hashCode()) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = name;
+            }
+        }
+    }
+}
@@ -2,17 +2,46 @@ package edu.hsutx;
 
 import javax.swing.*;
 import java.io.*;
-import java.util.HashMap;
+import java.nio.file.Path;
 
 public class ReservationController {
     private static final double DELAY_SECONDS = 5.0;  // Set this to the number of seconds to pause after updating each entry in the csv file
     private CowboySeatTree seatTree;
     private SwingView view;
+    private EventLog log;
+    private SeatChangeFeed changeFeed;  // null when the tree keeps no versions and the view is drawn directly
 
-    // Constructor to link model and view
+    // Constructor to link model and view, logging each reservation change to the console
     public ReservationController(CowboySeatTree seatTree, SwingView view) {
+        this(seatTree, view, new EventLog(new ConsoleSink(System.out), EventLog.Level.INFO));
+    }
+
+    // Constructor with a caller-supplied log; the controller closes it when processing is complete.
+    // The view may be null to process the file without a display
+    public ReservationController(CowboySeatTree seatTree, SwingView view, EventLog log) {
         this.seatTree = seatTree;
         this.view = view;
+        this.log = log;
+
+        // With the persistent backend the view draws the model's changes from a bounded feed at its own
+        // frame rate; other backends keep no versions to redraw from, so each change is drawn directly
+        if (seatTree.hasVersions()) {
+            changeFeed = new SeatChangeFeed();
+            seatTree.setChangeFeed(changeFeed);
+            if (view != null) view.setChangeFeed(changeFeed);
+        }
+    }
+
+    // The feed the view follows, or null if changes are drawn directly
+    SeatChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    // Draw one change on the EDT when there is no feed for the view to follow
+    private void drawDirectly(SeatAssignment block, boolean assigned) {
+        if (view == null || changeFeed != null) return;
+        SwingUtilities.invokeLater(() ->
+                view.updateStadiumVisualization(block.getSeatStartIndex(), block.getSeatQuantity(), assigned));
     }
 
     // Method to process the CSV file
@@ -22,114 +51,62 @@ public class ReservationController {
 
             @Override
             protected Void doInBackground() throws Exception {
-                String line;
-                HashMap<String, String> keyNamePairs = new HashMap<>();
-                BufferedReader br;
+                ReservationCommand cmd = new ReservationCommand();
 
                 seatTree.insert(new SeatAssignment(999999, 1));  // Add starting empty seats to the tree
-                System.out.println("Inserted starting empty seats");
-
-                try {
-                    File file = new File(filePath);
-                    br = new BufferedReader(new InputStreamReader(new FileInputStream(filePath), "UTF-16"));
-                } catch (FileNotFoundException e) {
-                    throw new RuntimeException(e);
-                } catch (UnsupportedEncodingException e) {
-                    throw new RuntimeException(e);
-                }
-
-                try {
-                    // Read the file line by line
-                    while ((line = br.readLine()) != null) {
-                        System.out.println("Read " + line);
-                        String[] values = line.split(",");
-
-                        char command = values[0].charAt(0);
-                        String name = values[1];
-                        System.out.println("Command: " + command + ", Name: " + name);
-
-                        if (command == 'a') {
-                            String seatStr = values[2];
-                            int preference = Integer.parseInt(values[3]);
-                            int seatsNeeded = Integer.parseInt(seatStr);
-
-                            System.out.println("Seats needed: " + seatsNeeded + ", Preference: " + preference);
-
-                            SeatAssignment emptyBlock = seatTree.getUnassignedBlockOverThreshold(seatsNeeded);
-                            if (emptyBlock == null) {
-                                System.out.println("Error adding " + seatsNeeded + " seats for " + name + " -- no sufficient free block found.");
+                log.message(EventLog.Level.DEBUG, "Inserted starting empty seats");
+
+                // Decode the file one command at a time, straight out of the mapped file
+                try (ReservationCommandReader reader = new ReservationCommandReader(Path.of(filePath))) {
+                    while (reader.next(cmd)) {
+                        log.command(cmd);
+
+                        if (cmd.getType() == ReservationCommand.ADD) {
+                            int seatsNeeded = cmd.getSeatsNeeded();
+
+                            // Update the tree: carve the party out of the block nearest its target seat if it named one,
+                            // otherwise out of the block the placement policy picks
+                            SeatAssignment addAsg = cmd.getTargetSeat() > 0
+                                    ? seatTree.allocateNear(cmd.getName(), seatsNeeded, cmd.getTargetSeat())
+                                    : seatTree.allocate(cmd.getName(), seatsNeeded, cmd.getPreference());
+                            if (addAsg == null) {
+                                log.rejected(cmd);
                                 continue;
                             }
-
-                            int openSeats = emptyBlock.getSeatQuantity();
-                            int openSeatStart = emptyBlock.getSeatStartIndex();
-                            System.out.println("Open seats found: " + openSeats + ", Start at: " + openSeatStart);
-
-                            int startSeat = (int) ((openSeats - seatsNeeded) * (preference / 100.0)) + openSeatStart;
-                            System.out.println("Start seat for reservation: " + startSeat);
-
-                            // Update the tree
-                            seatTree.delete(emptyBlock);
-                            System.out.println("Deleted block: " + emptyBlock.getKey());
-
-                            SeatAssignment addAsg = new SeatAssignment(name, seatsNeeded, startSeat);
-                            seatTree.insert(addAsg);
-                            System.out.println("Inserted new reservation: " + addAsg.getKey());
-                            keyNamePairs.put(name, addAsg.getKey());
-
-                            // Update the stadium image
-                            SwingUtilities.invokeLater(() -> view.updateStadiumVisualization(startSeat, seatsNeeded, true));
-                            System.out.println("Updated stadium visualization for seats: " + startSeat + " to " + (startSeat + seatsNeeded));
-
-                            // Handle left and right unassigned blocks
-                            int leftSeats = startSeat - openSeatStart;
-                            if (leftSeats > 0) {
-                                SeatAssignment addLeft = new SeatAssignment(leftSeats, openSeatStart);
-                                seatTree.insert(addLeft);
-                                System.out.println("Inserted left unassigned block: " + addLeft.getKey());
-                            }
-
-                            if (leftSeats + seatsNeeded < openSeats) {
-                                SeatAssignment addRight = new SeatAssignment(openSeats - leftSeats - seatsNeeded, startSeat + seatsNeeded);
-                                seatTree.insert(addRight);
-                                System.out.println("Inserted right unassigned block: " + addRight.getKey());
-                            }
-
-                            SwingUtilities.invokeLater(() -> view.updateTreeVisualization(seatTree));
-                            System.out.println("Updated tree visualization");
-                        } else if (command == 'd') {
+                            log.allocated(addAsg, cmd.getPreference());
+                            drawDirectly(addAsg, true);
+                        } else if (cmd.getType() == ReservationCommand.DELETE) {
                             // Deletion command
-                            String key = keyNamePairs.get(name);
-                            seatTree.delete(key);
-                            System.out.println("Deleted reservation: " + key);
-                            keyNamePairs.remove(name);
-
-                            int leftSeats = Integer.parseInt(key.substring(0, 6));
-                            int openSeatStart = Integer.parseInt(key.substring(6));
-
-                            SeatAssignment addEmpty = new SeatAssignment(leftSeats, openSeatStart);
-                            seatTree.insert(addEmpty);
-                            System.out.println("Inserted empty block: " + addEmpty.getKey());
-
-                            SwingUtilities.invokeLater(() -> view.updateStadiumVisualization(openSeatStart, leftSeats, false));
-                            System.out.println("Updated stadium visualization for deletion: " + openSeatStart + " to " + (openSeatStart + leftSeats));
+                            SeatAssignment reservation = seatTree.getReservation(cmd.getName());
+                            if (reservation == null) {
+                                log.rejected(cmd);
+                                continue;
+                            }
+                            SeatAssignment addEmpty = seatTree.release(reservation);
+                            log.released(reservation, addEmpty);
+                            drawDirectly(reservation, false);
                         }
 
                         // Sleep for the delay between operations
-                        System.out.println("Sleeping for " + DELAY_SECONDS + " seconds");
+                        log.message(EventLog.Level.DEBUG, "Sleeping between operations");
                         Thread.sleep((long) (DELAY_SECONDS * 1000));
                     }
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
-                System.out.println("File is fully read.");
+                log.message(EventLog.Level.INFO, "File is fully read.");
                 return null;
             }
 
             @Override
             protected void done() {
-                System.out.println("Processing complete");
-                // Code that runs after the background task is complete (if any cleanup is needed)
+                log.message(EventLog.Level.INFO, "Processing complete");
+                // Drain anything still queued and release the sink
+                try {
+                    log.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
             }
         };
 
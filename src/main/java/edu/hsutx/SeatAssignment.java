@@ -4,18 +4,21 @@ package edu.hsutx;
  * Represents a seat assignment with a unique key based on the quantity and starting index of the seats,
  * along with an optional owner of the seat assignment.
  *
- * The key is a concatenation of the seat quantity and starting index, each formatted to be a fixed-length string.
+ * The key packs the seat quantity into the high 32 bits and the starting index into the low 32 bits of a long,
+ * which orders exactly like the fixed-length string key (quantity first, then start) without any formatting.
  * The owner field is optional and can be null if no owner is assigned.
+ * A reservation also carries its booking sequence, which orders an owner's bookings from oldest to newest.
  *
  * @author Todd Dole
  * @version 1.0
  */
 
 public class SeatAssignment {
-    private final String key;
+    private final long key;
     private final String owner;
     private final int seatQuantity;
     private final int seatStartIndex;
+    private long sequence;  // booking order, 0 until the tree indexes the reservation
 
 
     /**
@@ -27,7 +30,7 @@ public class SeatAssignment {
      * @param seatStartIndex The starting index of the seat assignment.
      */
     public SeatAssignment(int seatQuantity, int seatStartIndex) {
-        this.key = String.format("%06d", seatQuantity) + String.format("%07d",seatStartIndex);
+        this.key = packKey(seatQuantity, seatStartIndex);
         this.owner = null;
         this.seatQuantity = seatQuantity;
         this.seatStartIndex = seatStartIndex;
@@ -43,21 +46,65 @@ public class SeatAssignment {
      * @param seatStartIndex The starting index of the seat assignment.
      */
     public SeatAssignment(String owner, int seatQuantity, int seatStartIndex) {
-        this.key = String.format("%06d", seatQuantity) + String.format("%07d",seatStartIndex);
+        this(owner, seatQuantity, seatStartIndex, 0);
+    }
+
+    /**
+     * Constructor to restore a reservation with the booking sequence it was given when it was made.
+     *
+     * @param owner          The owner of the seat assignment.
+     * @param seatQuantity   The number of seats being assigned.
+     * @param seatStartIndex The starting index of the seat assignment.
+     * @param sequence       The booking sequence, or 0 if unknown.
+     */
+    public SeatAssignment(String owner, int seatQuantity, int seatStartIndex, long sequence) {
+        this.key = packKey(seatQuantity, seatStartIndex);
         this.owner = owner;
         this.seatQuantity = seatQuantity;
         this.seatStartIndex = seatStartIndex;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Packs a seat quantity and start index into a single ordered key.
+     *
+     * @param seatQuantity   The number of seats.
+     * @param seatStartIndex The starting index of the seats.
+     * @return The packed key.
+     */
+    public static long packKey(int seatQuantity, int seatStartIndex) {
+        return ((long) seatQuantity << 32) | (seatStartIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Converts a legacy string key (6-digit quantity followed by 7-digit start index) to a packed key.
+     *
+     * @param key The string key.
+     * @return The packed key.
+     */
+    public static long parseKey(String key) {
+        return packKey(Integer.parseInt(key.substring(0, 6)), Integer.parseInt(key.substring(6)));
+    }
+
+    /**
+     * Gets the packed key used to order this seat assignment in the tree.
+     *
+     * @return The packed key for the seat assignment.
+     */
+    public long getPackedKey() {
+        return key;
     }
 
     /**
      * Gets the unique key representing this seat assignment.
      * The key is a concatenation of the seat quantity and seat start index,
      * formatted as 6 digits and 7 digits respectively.
+     * It is built on demand for display and logging; the tree itself uses {@link #getPackedKey()}.
      *
      * @return The unique key for the seat assignment.
      */
     public String getKey() {
-        return key;
+        return String.format("%06d", seatQuantity) + String.format("%07d", seatStartIndex);
     }
 
     /**
@@ -86,4 +133,22 @@ public class SeatAssignment {
     public String getOwner() {
         return owner;
     }
+
+    /**
+     * Gets the booking sequence: a later booking has a larger sequence than an earlier one.
+     *
+     * @return The sequence, or 0 for free blocks and reservations no tree has indexed yet.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Records the booking sequence. Called once, by the tree that indexes the reservation.
+     *
+     * @param sequence The sequence.
+     */
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
 }
@@ -0,0 +1,172 @@
+package edu.hsutx;
+
+/**
+ * Bounded feed of seat map changes from a {@link CowboySeatTree} to a viewer on another thread.
+ *
+ * Every change is one (start, length, assigned) delta packed into a long and stored in a
+ * preallocated ring, so publishing costs a few stores and never allocates, blocks or waits for the
+ * viewer. The viewer drains the ring at its own pace, typically once per frame, and adjacent deltas of
+ * the same kind are merged on the way out.
+ *
+ * If the viewer falls a whole ring behind, new deltas are dropped instead of queued. The next drain
+ * then skips whatever is left and hands the viewer the latest free-block and reservation versions of
+ * the tree, from which it redraws everything; the tree publishes those versions before each of its
+ * deltas, so they are never older than a skipped delta, and the drain reads them as a matching pair. Memory use and the viewer's work per frame are bounded
+ * however fast the tree changes.
+ *
+ * One thread publishes (the thread that changes the tree) and one thread drains.
+ */
+public class SeatChangeFeed {
+
+    /**
+     * Receives drained changes.
+     */
+    public interface Sink {
+        /**
+         * A run of seats was reserved or freed.
+         *
+         * @param start    The first seat.
+         * @param length   The number of seats.
+         * @param assigned true if the seats are now reserved, false if they are now free.
+         */
+        void seatsChanged(int start, int length, boolean assigned);
+
+        /**
+         * Changes were dropped; redraw everything from these versions of the tree's indexes.
+         *
+         * @param freeBlocks   The free-block version to redraw from.
+         * @param reservations The reservation version from the same moment.
+         */
+        void resync(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+                    PersistentLongRedBlackTree.Node<SeatAssignment> reservations);
+    }
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final long[] slots;
+    private final int mask;
+    private volatile long written;
+    private volatile long drained;
+    private volatile boolean overflowed;
+    private volatile long versionStamp;  // Odd while the producer is replacing the versions below
+    private volatile PersistentLongRedBlackTree.Node<SeatAssignment> version;
+    private volatile PersistentLongRedBlackTree.Node<SeatAssignment> reservationVersion;
+
+    /**
+     * Creates a feed with the default ring capacity.
+     */
+    public SeatChangeFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a feed.
+     *
+     * @param capacity Ring size, rounded up to a power of two.
+     */
+    public SeatChangeFeed(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        slots = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Publishes one change. Called by the tree once the change is complete.
+     *
+     * @param freeBlocks   The free-block version after the change.
+     * @param reservations The reservation version after the change.
+     * @param start        The first seat.
+     * @param length       The number of seats.
+     * @param assigned     true if the seats are now reserved.
+     */
+    void publish(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+                 PersistentLongRedBlackTree.Node<SeatAssignment> reservations, int start, int length, boolean assigned) {
+        setVersions(freeBlocks, reservations);
+        long next = written;
+        if (next - drained > mask) {
+            overflowed = true;
+            return;
+        }
+        slots[(int) next & mask] = (long) start << 32 | (long) length << 1 | (assigned ? 1 : 0);
+        written = next + 1;
+    }
+
+    /**
+     * Tells the viewer to redraw everything, as after the tree was loaded wholesale.
+     *
+     * @param freeBlocks   The free-block version to redraw from.
+     * @param reservations The reservation version to redraw from.
+     */
+    void reset(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+               PersistentLongRedBlackTree.Node<SeatAssignment> reservations) {
+        setVersions(freeBlocks, reservations);
+        overflowed = true;
+    }
+
+    /**
+     * Replaces both versions, marking the stamp odd meanwhile so a drain never pairs a free-block
+     * version with a reservation version from another change.
+     */
+    private void setVersions(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+                             PersistentLongRedBlackTree.Node<SeatAssignment> reservations) {
+        long stamp = versionStamp;
+        versionStamp = stamp + 1;
+        version = freeBlocks;
+        reservationVersion = reservations;
+        versionStamp = stamp + 2;
+    }
+
+    /**
+     * Gets the free-block version after the latest published change.
+     *
+     * @return The version, or null if nothing has been published or no seats are free.
+     */
+    public PersistentLongRedBlackTree.Node<SeatAssignment> getVersion() {
+        return version;
+    }
+
+    /**
+     * Hands every pending change to a sink, merging runs that continue one another.
+     *
+     * @param sink Where to send the changes.
+     * @return The number of deltas consumed.
+     */
+    public int drain(Sink sink) {
+        long from = drained;
+        if (overflowed) {
+            overflowed = false;
+            from = written;  // Read before the versions, so they cover everything skipped
+            drained = from;
+            PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks;
+            PersistentLongRedBlackTree.Node<SeatAssignment> reservations;
+            long stamp;
+            do {
+                stamp = versionStamp;
+                freeBlocks = version;
+                reservations = reservationVersion;
+            } while ((stamp & 1) != 0 || stamp != versionStamp);
+            sink.resync(freeBlocks, reservations);
+        }
+        long to = written;
+        int pendingStart = 0;
+        int pendingLength = 0;
+        boolean pendingAssigned = false;
+        for (long i = from; i < to; i++) {
+            long delta = slots[(int) i & mask];
+            int start = (int) (delta >>> 32);
+            int length = (int) delta >>> 1;
+            boolean assigned = (delta & 1) != 0;
+            if (pendingLength > 0 && assigned == pendingAssigned && start == pendingStart + pendingLength) {
+                pendingLength += length;
+                continue;
+            }
+            if (pendingLength > 0) sink.seatsChanged(pendingStart, pendingLength, pendingAssigned);
+            pendingStart = start;
+            pendingLength = length;
+            pendingAssigned = assigned;
+        }
+        if (pendingLength > 0) sink.seatsChanged(pendingStart, pendingLength, pendingAssigned);
+        drained = to;
+        return (int) (to - from);
+    }
+}
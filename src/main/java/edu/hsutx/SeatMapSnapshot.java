@@ -0,0 +1,198 @@
+package edu.hsutx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32C;
+
+/**
+ * A point-in-time copy of a seat map, with the write-ahead log position it reflects, and its compact
+ * binary file format.
+ *
+ * Capturing freezes the seat map with {@link CowboySeatTree#freezeBlocks()}: O(1) with the persistent
+ * backend, otherwise a short linear copy of block references on the writer's thread. Encoding and
+ * writing can then happen on any other thread while the tree keeps changing.
+ *
+ * File layout, big-endian:
+ * <pre>
+ * header   int magic "CSSN", int version, long lsn, int blockCount, int nameBytes, int crc32c of the rest
+ * blocks   blockCount fixed-width records of int start, int seats, int nameOffset (-1 if free), int nameLength,
+ *          long booking sequence (0 if free)
+ * names    nameBytes of UTF-8 owner names, referenced by offset
+ * </pre>
+ * The sequence keeps each owner's bookings in the order they were made, so the owner's latest booking
+ * is the same after a restore. Version 1 files have no sequence, and their bookings load in seat order.
+ * Because the block records are fixed-width and already in seat order, loading maps the file and
+ * streams the records straight into {@link CowboySeatTree#load(Iterator)}, which bulk-builds every index.
+ * Files are written to a temporary name, forced, then atomically renamed, so a crash never leaves a
+ * half-written snapshot in place.
+ */
+public class SeatMapSnapshot {
+    private static final int MAGIC = 0x4353534E;  // "CSSN"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 28;
+    private static final int RECORD_BYTES = 24;
+    private static final int V1_RECORD_BYTES = 16;
+
+    private final long lsn;
+    private final Iterable<SeatAssignment> blocks;
+    private final int blockCount;
+
+    private SeatMapSnapshot(long lsn, Iterable<SeatAssignment> blocks, int blockCount) {
+        this.lsn = lsn;
+        this.blocks = blocks;
+        this.blockCount = blockCount;
+    }
+
+    /**
+     * Copies the current seat map. Must run on the thread that modifies the tree, or under its lock.
+     *
+     * @param seatTree The seat map.
+     * @param lsn      The last log record the tree reflects.
+     * @return The snapshot.
+     */
+    public static SeatMapSnapshot capture(CowboySeatTree seatTree, long lsn) {
+        return new SeatMapSnapshot(lsn, seatTree.freezeBlocks(), seatTree.getSize());
+    }
+
+    /**
+     * Gets the log position this snapshot reflects.
+     *
+     * @return The LSN of the last change included.
+     */
+    public long getLsn() {
+        return lsn;
+    }
+
+    /**
+     * Gets the number of blocks, free and reserved.
+     *
+     * @return The block count.
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Writes the snapshot, replacing any file already at the path only once the new one is on disk.
+     *
+     * @param file Where to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        SeatAssignment[] blocks = new SeatAssignment[blockCount];
+        int index = 0;
+        for (SeatAssignment block : this.blocks) {
+            blocks[index++] = block;
+        }
+        byte[][] names = new byte[blockCount][];
+        int nameBytes = 0;
+        for (int i = 0; i < blockCount; i++) {
+            String owner = blocks[i].getOwner();
+            if (owner != null) {
+                names[i] = owner.getBytes(StandardCharsets.UTF_8);
+                nameBytes += names[i].length;
+            }
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(blockCount * RECORD_BYTES + nameBytes);
+        int nameOffset = 0;
+        for (int i = 0; i < blockCount; i++) {
+            body.putInt(blocks[i].getSeatStartIndex()).putInt(blocks[i].getSeatQuantity());
+            if (names[i] == null) {
+                body.putInt(-1).putInt(0).putLong(0);
+            } else {
+                body.putInt(nameOffset).putInt(names[i].length).putLong(blocks[i].getSequence());
+                nameOffset += names[i].length;
+            }
+        }
+        for (byte[] name : names) {
+            if (name != null) body.put(name);
+        }
+        body.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC).putInt(VERSION).putLong(lsn).putInt(blockCount).putInt(nameBytes).putInt((int) crc.getValue());
+        header.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) out.write(header);
+            while (body.hasRemaining()) out.write(body);
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The log is truncated behind this snapshot next, so the new name must survive a crash first
+        WriteAheadLog.syncDirectory(file);
+    }
+
+    /**
+     * Loads a snapshot file into an empty seat tree.
+     *
+     * @param file     The snapshot file.
+     * @param seatTree An empty tree to load.
+     * @return The LSN the loaded state reflects; replay the write-ahead log after it.
+     * @throws IOException If the file cannot be read or fails its checks.
+     */
+    public static long load(Path file, CowboySeatTree seatTree) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() < HEADER_BYTES) throw new IOException(file + " is not a seat map snapshot");
+            MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            int version = map.getInt(4);
+            if (map.getInt(0) != MAGIC || (version != VERSION && version != 1)) {
+                throw new IOException(file + " is not a seat map snapshot");
+            }
+            int recordBytes = version == 1 ? V1_RECORD_BYTES : RECORD_BYTES;
+            long lsn = map.getLong(8);
+            int blockCount = map.getInt(16);
+            int nameBytes = map.getInt(20);
+            int storedCrc = map.getInt(24);
+            long namesStart = HEADER_BYTES + (long) blockCount * recordBytes;
+            if (blockCount < 0 || nameBytes < 0 || namesStart + nameBytes != in.size()) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(map.slice().position(HEADER_BYTES));
+            if ((int) crc.getValue() != storedCrc) {
+                throw new IOException(file + " failed its checksum");
+            }
+
+            seatTree.load(new Iterator<SeatAssignment>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < blockCount;
+                }
+
+                @Override
+                public SeatAssignment next() {
+                    if (index >= blockCount) throw new NoSuchElementException();
+                    int record = HEADER_BYTES + index++ * recordBytes;
+                    int start = map.getInt(record);
+                    int seats = map.getInt(record + 4);
+                    int nameOffset = map.getInt(record + 8);
+                    if (nameOffset < 0) {
+                        return new SeatAssignment(seats, start);
+                    }
+                    byte[] name = new byte[map.getInt(record + 12)];
+                    map.get((int) namesStart + nameOffset, name);
+                    long sequence = recordBytes == RECORD_BYTES ? map.getLong(record + 16) : 0;
+                    return new SeatAssignment(new String(name, StandardCharsets.UTF_8), seats, start, sequence);
+                }
+            });
+            return lsn;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package edu.hsutx;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe reservation engine that splits the stadium into contiguous sections,
+ * each with its own CowboySeatTree and its own lock, so requests that land in different
+ * sections proceed in parallel.
+ *
+ * Every owner has a home section picked from their name. A request is tried there first,
+ * then in the remaining sections in order. If no single section has a block large enough,
+ * the engine looks for a free run that crosses the boundary between two neighboring sections
+ * and books it as two parts, one in each section.
+ *
+ * Locking rules: single-section work holds exactly one section lock at a time, and
+ * cross-section work takes the two locks in increasing section order, so there is no deadlock.
+ * Operations on one section are applied in lock order, so as long as callers keep each
+ * owner's commands in order, the result in a home section only depends on the requests routed to it.
+ */
+public class SectionedReservationEngine {
+
+    /**
+     * One independently locked slice of the stadium.
+     */
+    private static final class Section {
+        final int firstSeat;
+        final int lastSeat;
+        final CowboySeatTree tree;
+        final ReentrantLock lock = new ReentrantLock();
+
+        Section(int firstSeat, int lastSeat, CowboySeatTree.Backend backend) {
+            this.firstSeat = firstSeat;
+            this.lastSeat = lastSeat;
+            this.tree = new CowboySeatTree(backend);
+            this.tree.insert(new SeatAssignment(lastSeat - firstSeat + 1, firstSeat));
+        }
+    }
+
+    private final Section[] sections;
+    // Each owner's bookings, oldest first; a deque is only touched inside its map entry's compute
+    private final ConcurrentHashMap<String, ArrayDeque<SeatAssignment[]>> bookings = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an engine for seats 1 through totalSeats.
+     *
+     * @param totalSeats   The number of seats in the stadium.
+     * @param sectionCount How many independently locked sections to split them into.
+     * @param backend      Storage used by each section's seat tree.
+     */
+    public SectionedReservationEngine(int totalSeats, int sectionCount, CowboySeatTree.Backend backend) {
+        if (sectionCount < 1 || sectionCount > totalSeats) {
+            throw new IllegalArgumentException("sectionCount must be between 1 and " + totalSeats);
+        }
+        sections = new Section[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            int firstSeat = 1 + (int) ((long) totalSeats * i / sectionCount);
+            int lastSeat = (int) ((long) totalSeats * (i + 1) / sectionCount);
+            sections[i] = new Section(firstSeat, lastSeat, backend);
+        }
+    }
+
+    /**
+     * Gets the section an owner's requests are tried in first.
+     *
+     * @param owner The owner's name.
+     * @return The home section index.
+     */
+    public int homeSection(String owner) {
+        return Math.floorMod(owner.hashCode(), sections.length);
+    }
+
+    /**
+     * Gets the number of sections.
+     *
+     * @return The section count.
+     */
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    /**
+     * Reserves seats for an owner.
+     *
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats requested.
+     * @param preference  Where in the free block to sit, from 0 (front) to 100 (back).
+     * @return The booked parts (one, or two if the party crosses a section boundary),
+     *         or null if seatsNeeded is not positive or no free run is large enough.
+     */
+    public SeatAssignment[] allocate(String owner, int seatsNeeded, int preference) {
+        if (seatsNeeded < 1) return null;
+        int home = homeSection(owner);
+        for (int i = 0; i < sections.length; i++) {
+            Section section = sections[(home + i) % sections.length];
+            SeatAssignment reservation;
+            section.lock.lock();
+            try {
+                reservation = section.tree.allocate(owner, seatsNeeded, preference);
+            } finally {
+                section.lock.unlock();
+            }
+            if (reservation != null) {
+                SeatAssignment[] parts = {reservation};
+                recordBooking(owner, parts);
+                return parts;
+            }
+        }
+
+        for (int i = 0; i + 1 < sections.length; i++) {
+            SeatAssignment[] parts = allocateAcross(i, owner, seatsNeeded, preference);
+            if (parts != null) {
+                recordBooking(owner, parts);
+                return parts;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records a booking as its owner's latest, keeping the owner's earlier bookings.
+     *
+     * @param owner The owner's name.
+     * @param parts The booked parts.
+     */
+    private void recordBooking(String owner, SeatAssignment[] parts) {
+        bookings.compute(owner, (name, list) -> {
+            if (list == null) list = new ArrayDeque<>(2);
+            list.addLast(parts);
+            return list;
+        });
+    }
+
+    /**
+     * Removes an owner's latest booking from the record, dropping the owner once none are left.
+     *
+     * @param owner The owner's name.
+     * @return The booking's parts, or null if the owner holds none.
+     */
+    private SeatAssignment[] takeLatestBooking(String owner) {
+        SeatAssignment[][] latest = new SeatAssignment[1][];
+        bookings.computeIfPresent(owner, (name, list) -> {
+            latest[0] = list.pollLast();
+            return list.isEmpty() ? null : list;
+        });
+        return latest[0];
+    }
+
+    /**
+     * Tries to book a party across the boundary between a section and the next one.
+     *
+     * @param index       The lower of the two sections.
+     * @param owner       The owner of the new reservation.
+     * @param seatsNeeded The number of seats requested.
+     * @param preference  Where in the combined free run to sit, from 0 (front) to 100 (back).
+     * @return The two booked parts, the single part if the block on one side of the boundary now fits
+     *         the party by itself, or null if the run at the boundary is too small.
+     */
+    private SeatAssignment[] allocateAcross(int index, String owner, int seatsNeeded, int preference) {
+        Section lower = sections[index];
+        Section upper = sections[index + 1];
+        lower.lock.lock();
+        upper.lock.lock();
+        try {
+            SeatAssignment tail = lower.tree.getFreeBlockContaining(lower.lastSeat);
+            SeatAssignment head = upper.tree.getFreeBlockContaining(upper.firstSeat);
+
+            // The single-section pass released its locks, so another thread may have freed seats
+            // since; if one side of the boundary now fits the party, book it there without splitting
+            for (SeatAssignment block : new SeatAssignment[]{tail, head}) {
+                if (block != null && block.getSeatQuantity() >= seatsNeeded) {
+                    Section section = block == tail ? lower : upper;
+                    SeatAssignment reservation = section.tree.allocate(owner, seatsNeeded, preference);
+                    return reservation == null ? null : new SeatAssignment[]{reservation};
+                }
+            }
+            if (tail == null || head == null) return null;
+
+            int openSeats = tail.getSeatQuantity() + head.getSeatQuantity();
+            if (openSeats < seatsNeeded) return null;
+
+            // Neither block fits the party on its own, and the tail ends at the boundary, so any
+            // placement in the combined run starts below the boundary and ends above it.
+            int startSeat = (int) ((openSeats - seatsNeeded) * (CowboySeatTree.clampPreference(preference) / 100.0)) + tail.getSeatStartIndex();
+            int endSeat = startSeat + seatsNeeded;
+            int boundary = upper.firstSeat;
+
+            lower.tree.delete(tail);
+            if (startSeat > tail.getSeatStartIndex()) {
+                lower.tree.insert(new SeatAssignment(startSeat - tail.getSeatStartIndex(), tail.getSeatStartIndex()));
+            }
+            SeatAssignment lowerPart = new SeatAssignment(owner, boundary - startSeat, startSeat);
+            lower.tree.insert(lowerPart);
+
+            upper.tree.delete(head);
+            SeatAssignment upperPart = new SeatAssignment(owner, endSeat - boundary, boundary);
+            upper.tree.insert(upperPart);
+            int headEnd = head.getSeatStartIndex() + head.getSeatQuantity();
+            if (headEnd > endSeat) {
+                upper.tree.insert(new SeatAssignment(headEnd - endSeat, endSeat));
+            }
+            return new SeatAssignment[]{lowerPart, upperPart};
+        } finally {
+            upper.lock.unlock();
+            lower.lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels an owner's most recent reservation.
+     *
+     * @param owner The owner's name.
+     * @return The released parts, or null if the owner holds no reservation.
+     */
+    public SeatAssignment[] cancel(String owner) {
+        SeatAssignment[] parts = takeLatestBooking(owner);
+        if (parts == null) return null;
+
+        for (SeatAssignment part : parts) {
+            Section section = sectionOf(part.getSeatStartIndex());
+            section.lock.lock();
+            try {
+                section.tree.release(part);
+            } finally {
+                section.lock.unlock();
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Finds the section that holds a seat.
+     *
+     * @param seat The seat number.
+     * @return The section containing it.
+     */
+    private Section sectionOf(int seat) {
+        int lo = 0;
+        int hi = sections.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (sections[mid].firstSeat <= seat) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return sections[lo];
+    }
+
+    /**
+     * Gets the number of unassigned seats across every section.
+     * Each section is read under its own lock, so the total is not an atomic snapshot
+     * while requests are in flight.
+     *
+     * @return The free seat count.
+     */
+    public long getFreeSeatCount() {
+        long total = 0;
+        for (Section section : sections) {
+            section.lock.lock();
+            try {
+                total += section.tree.getFreeSeatCount();
+            } finally {
+                section.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of reservation parts across every section.
+     *
+     * @return The reservation count.
+     */
+    public int getReservationCount() {
+        int total = 0;
+        for (Section section : sections) {
+            section.lock.lock();
+            try {
+                total += section.tree.getReservationCount();
+            } finally {
+                section.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Checks every section's trees.
+     *
+     * @return true if all are valid Red-Black Trees
+     */
+    public boolean validateRedBlackTree() {
+        for (Section section : sections) {
+            section.lock.lock();
+            try {
+                if (!section.tree.validateRedBlackTree()) return false;
+            } finally {
+                section.lock.unlock();
+            }
+        }
+        return true;
+    }
+}
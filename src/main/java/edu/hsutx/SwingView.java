@@ -6,19 +6,65 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.awt.image.DataBufferInt;
 import java.io.IOException;
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class SwingView extends JFrame {
 
+    private static final int STADIUM_SIZE = 1000;  // Seats per row, and rows, in the stadium image
+    private static final int FRAME_MILLIS = 1000 / 60;  // Repaint dirty rows at most 60 times a second
+    private static final long EXPORT_MILLIS = 2000;  // Save the stadium image at most this often
+    private static final int TREE_WIDTH = 1000;  // Width of the tree drawing before zoom
+    private static final int LEVEL_HEIGHT = 50;  // Vertical distance between tree levels
+    private static final int NODE_RADIUS = 15;
+    private static final int MIN_NODE_SPACING = 20;  // Screen pixels below which subtrees collapse into one glyph
+
     private BufferedImage stadiumImage;
+    private int[] stadiumPixels;  // The image's own raster, one int per seat
+    private final Object stadiumLock = new Object();  // Guards the dirty row band
+    private int dirtyTop = Integer.MAX_VALUE;  // First row changed since the last repaint
+    private int dirtyBottom = -1;  // Last row changed since the last repaint
+    private long seatsSinceExport;  // Seats drawn since the last export, guarded by stadiumLock
+    private final BufferedImage exportImage = new BufferedImage(STADIUM_SIZE, STADIUM_SIZE, BufferedImage.TYPE_INT_RGB);
+    private volatile boolean exporting;  // The export thread owns exportImage until it clears this
+    private long lastExportMillis;  // When the EDT last handed a copy to the export thread
+    private volatile Path exportFile = Paths.get("image.png");
+    private volatile String exportFormat = "png";  // Any ImageIO writer name, or "raw"
+    private final ExecutorService exporter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stadium-export");
+        thread.setDaemon(true);
+        return thread;
+    });
     private JPanel stadiumPanel;
     private JScrollPane scrollPane;  // ScrollPane for tree panel
     private JPanel treePanel;  // Tree panel
-    private CowboySeatTree tree;  // Store the CowboySeatTree reference here
+    private volatile PersistentLongRedBlackTree.Node<SeatAssignment> tree;  // Immutable version of the free-block tree to draw
+    private volatile SeatChangeFeed changeFeed;  // Model changes not drawn yet, drained once per frame
+    private final SeatChangeFeed.Sink feedSink = new SeatChangeFeed.Sink() {
+        @Override
+        public void seatsChanged(int start, int length, boolean assigned) {
+            updateStadiumVisualization(start, length, assigned);
+        }
+
+        @Override
+        public void resync(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+                           PersistentLongRedBlackTree.Node<SeatAssignment> reservations) {
+            redrawStadium(freeBlocks, reservations);
+        }
+    };
     private double zoomFactor = 1.0;  // Zoom factor for the tree visualization
-    private int updateCount = 0;
 
     // Constructor to set up the JFrame
     public SwingView() {
@@ -28,12 +74,9 @@ public class SwingView extends JFrame {
         setLayout(new BorderLayout());
 
         // Add the stadium visualization on the right (East)
-        stadiumImage = new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_RGB);
-        for (int x = 0; x < 1000; x++) {
-            for (int y = 0; y < 1000; y++) {
-                stadiumImage.setRGB(x, y, Color.BLACK.getRGB());
-            }
-        }
+        stadiumImage = new BufferedImage(STADIUM_SIZE, STADIUM_SIZE, BufferedImage.TYPE_INT_RGB);
+        stadiumPixels = ((DataBufferInt) stadiumImage.getRaster().getDataBuffer()).getData();
+        Arrays.fill(stadiumPixels, Color.BLACK.getRGB());
 
         stadiumPanel = new JPanel() {
             @Override
@@ -42,9 +85,12 @@ public class SwingView extends JFrame {
                 g.drawImage(stadiumImage, 0, 0, this);
             }
         };
-        stadiumPanel.setPreferredSize(new Dimension(1000, 1000));
+        stadiumPanel.setPreferredSize(new Dimension(STADIUM_SIZE, STADIUM_SIZE));
         add(stadiumPanel, BorderLayout.EAST);
 
+        // Coalesce seat updates and repaint only the rows they touched, once per frame
+        new Timer(FRAME_MILLIS, e -> nextFrame()).start();
+
         // Tree Panel: Set up the scrollable and zoomable tree visualization
         treePanel = new JPanel() {
             @Override
@@ -53,36 +99,68 @@ public class SwingView extends JFrame {
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.scale(zoomFactor, zoomFactor);  // Apply zoom factor
 
-                // Check if tree exists and draw it
-                if (tree != null && tree.getRoot() != null) {
-                    drawTree(g2d, tree.getRoot(), getWidth() / 2, 50, getWidth() / 4);
+                // Check if tree exists and draw only the part inside the visible scroll rectangle
+                PersistentLongRedBlackTree.Node<SeatAssignment> root = tree;
+                if (root != null) {
+                    Rectangle clip = g2d.getClipBounds();
+                    if (clip == null) clip = new Rectangle(0, 0, TREE_WIDTH, treeHeight(root));
+                    drawTree(g2d, clip, root, TREE_WIDTH / 2, LEVEL_HEIGHT, TREE_WIDTH / 4);
                 }
             }
 
-            private void drawTree(Graphics2D g, CowboySeatTree.Node node, int x, int y, int xOffset) {
-                if (node == null) return;
+            private void drawTree(Graphics2D g, Rectangle clip, PersistentLongRedBlackTree.Node<SeatAssignment> node,
+                                  int x, int y, int xOffset) {
+                // Descendants lie within 2 * xOffset of this node and at most height - 1 levels below it
+                int reach = 2 * xOffset + NODE_RADIUS;
+                if (x + reach < clip.x || x - reach > clip.x + clip.width
+                        || y - NODE_RADIUS > clip.y + clip.height || y + node.height * LEVEL_HEIGHT < clip.y) {
+                    return;
+                }
+
+                // Too zoomed out to tell the nodes apart: show the whole subtree as one glyph
+                if (collapsed(xOffset) && node.count > 1) {
+                    drawAggregate(g, node, x, y, xOffset);
+                    return;
+                }
 
                 g.setColor(node.color ? Color.RED : Color.BLACK);
-                g.fillOval(x - 15, y - 15, 30, 30);  // Draw node as a circle
+                g.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, 2 * NODE_RADIUS, 2 * NODE_RADIUS);  // Draw node as a circle
                 g.setColor(Color.WHITE);
-                g.drawString(node.key, x - 10, y + 5);  // Draw the key inside the node
+                g.drawString(node.value.getKey(), x - 10, y + 5);  // Draw the key inside the node
 
                 if (node.left != null) {
                     g.setColor(Color.BLACK);
-                    g.drawLine(x, y, x - xOffset, y + 50);  // Draw left child line
-                    drawTree(g, node.left, x - xOffset, y + 50, xOffset / 2);  // Recurse to left child
+                    g.drawLine(x, y, x - xOffset, y + LEVEL_HEIGHT);  // Draw left child line
+                    drawTree(g, clip, node.left, x - xOffset, y + LEVEL_HEIGHT, xOffset / 2);  // Recurse to left child
                 }
 
                 if (node.right != null) {
                     g.setColor(Color.BLACK);
-                    g.drawLine(x, y, x + xOffset, y + 50);  // Draw right child line
-                    drawTree(g, node.right, x + xOffset, y + 50, xOffset / 2);  // Recurse to right child
+                    g.drawLine(x, y, x + xOffset, y + LEVEL_HEIGHT);  // Draw right child line
+                    drawTree(g, clip, node.right, x + xOffset, y + LEVEL_HEIGHT, xOffset / 2);  // Recurse to right child
+                }
+            }
+
+            // Draws a collapsed subtree as a triangle labelled with its block count and free seats
+            private void drawAggregate(Graphics2D g, PersistentLongRedBlackTree.Node<SeatAssignment> node, int x, int y, int xOffset) {
+                int halfWidth = Math.max(2 * xOffset - 2, NODE_RADIUS / 2);
+                g.setColor(Color.GRAY);
+                g.fillPolygon(new int[] {x, x - halfWidth, x + halfWidth},
+                        new int[] {y - NODE_RADIUS, y + NODE_RADIUS, y + NODE_RADIUS}, 3);
+
+                FontMetrics metrics = g.getFontMetrics();
+                String count = String.valueOf(node.count);
+                String seats = String.valueOf(node.weightSum);
+                if (Math.max(metrics.stringWidth(count), metrics.stringWidth(seats)) <= 2 * halfWidth) {
+                    g.setColor(Color.BLACK);
+                    g.drawString(count, x - metrics.stringWidth(count) / 2, y + NODE_RADIUS + metrics.getAscent());
+                    g.drawString(seats, x - metrics.stringWidth(seats) / 2, y + NODE_RADIUS + 2 * metrics.getAscent());
                 }
             }
         };
 
         // Set initial size for the tree panel, will adjust based on zoom
-        treePanel.setPreferredSize(new Dimension(1000, 600));
+        treePanel.setPreferredSize(new Dimension(TREE_WIDTH, 600));
 
         // Wrap the tree panel in a scroll pane for scrolling
         scrollPane = new JScrollPane(treePanel);
@@ -97,8 +175,7 @@ public class SwingView extends JFrame {
                 } else {
                     zoomFactor /= 1.1;  // Zoom out
                 }
-                treePanel.revalidate();  // Revalidate and repaint to apply zoom
-                treePanel.repaint();
+                resizeTreePanel();  // Resize and repaint to apply zoom
             }
         });
     }
@@ -108,53 +185,169 @@ public class SwingView extends JFrame {
         this.setVisible(true);
     }
 
-    // Method to update the stadium visualization with colored seats
+    // Method to update the stadium visualization with colored seats. Call on the EDT: it writes
+    // straight into the image raster, and the frame timer repaints the changed rows
     public void updateStadiumVisualization(int start, int length, boolean colored) {
-        Random rand = new Random();
-        Color randomColor = new Color(rand.nextInt(256), rand.nextInt(256), rand.nextInt(256));
+        int rgb = colored ? ThreadLocalRandom.current().nextInt(0x1000000) : Color.BLACK.getRGB();
+
+        // Seats run in snake order, so each row of a block is one contiguous run of pixels
+        int seat = Math.max(start, 0);
+        int end = Math.min(start + length, STADIUM_SIZE * STADIUM_SIZE);
+        if (seat >= end) return;
+        while (seat < end) {
+            int row = seat / STADIUM_SIZE;
+            int rowEnd = Math.min(end, (row + 1) * STADIUM_SIZE);
+            int first = seat % STADIUM_SIZE;
+            int last = (rowEnd - 1) % STADIUM_SIZE;
+            if (row % 2 == 1) {
+                int reversedFirst = STADIUM_SIZE - 1 - last;
+                last = STADIUM_SIZE - 1 - first;
+                first = reversedFirst;
+            }
+            Arrays.fill(stadiumPixels, row * STADIUM_SIZE + first, row * STADIUM_SIZE + last + 1, rgb);
+            seat = rowEnd;
+        }
+
+        synchronized (stadiumLock) {
+            dirtyTop = Math.min(dirtyTop, Math.max(start, 0) / STADIUM_SIZE);
+            dirtyBottom = Math.max(dirtyBottom, (end - 1) / STADIUM_SIZE);
+            seatsSinceExport += end - Math.max(start, 0);
+        }
+    }
 
-        for (int i = start; i < start + length; i++) {
-            int row = i / 1000;
-            int col = (row % 2 == 0) ? (i % 1000) : (999 - (i % 1000));
+    // Choose where and how the stadium image is saved: "png" is lossless, "jpg" is smaller,
+    // and "raw" dumps the 0xRRGGBB seat pixels row by row with no encoding at all
+    public void setImageExport(String fileName, String format) {
+        String name = format.toLowerCase();
+        if (!name.equals("raw") && !ImageIO.getImageWritersByFormatName(name).hasNext()) {
+            throw new IllegalArgumentException("No image writer for " + format);
+        }
+        exportFile = Paths.get(fileName);
+        exportFormat = name;
+    }
+
+    // Runs on the EDT between frames, when no change is half drawn: copies the raster into the export
+    // buffer if seats changed since the last save and the export thread is idle, then hands it over
+    private void exportIfChanged() {
+        long now = System.currentTimeMillis();
+        if (exporting || now - lastExportMillis < EXPORT_MILLIS) return;
+        synchronized (stadiumLock) {
+            if (seatsSinceExport == 0) return;
+            seatsSinceExport = 0;
+        }
+        int[] copy = ((DataBufferInt) exportImage.getRaster().getDataBuffer()).getData();
+        System.arraycopy(stadiumPixels, 0, copy, 0, copy.length);
+        lastExportMillis = now;
+        exporting = true;
+        exporter.execute(this::export);
+    }
 
-            if (colored) {
-                stadiumImage.setRGB(col, row, randomColor.getRGB());
+    // Runs on the export thread: encodes the copy, so neither the EDT nor the reservation thread
+    // ever waits for the disk
+    private void export() {
+        int[] copy = ((DataBufferInt) exportImage.getRaster().getDataBuffer()).getData();
+        Path file = exportFile;
+        String format = exportFormat;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (format.equals("raw")) {
+                ByteBuffer bytes = ByteBuffer.allocate(copy.length * Integer.BYTES);
+                bytes.asIntBuffer().put(copy);
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (bytes.hasRemaining()) out.write(bytes);
+                }
             } else {
-                stadiumImage.setRGB(col, row, Color.BLACK.getRGB());
+                ImageIO.write(exportImage, format, temp.toFile());
             }
+            // Replace the old image in one step so viewers never see a half-written file
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            exporting = false;
         }
+    }
+
+    // Follow a model's change feed: its changes are drawn at the frame rate, however fast they arrive
+    public void setChangeFeed(SeatChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
 
-        stadiumPanel.revalidate();
-        stadiumPanel.repaint();
-        updateCount++;
-
-        // Save the stadium image periodically (every 20 updates)
-        if (updateCount % 20 == 0) {
-            File outputfile = new File("image.jpg");
-            try {
-                ImageIO.write(stadiumImage, "jpg", outputfile);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+    // Runs on the EDT once per frame: draw the changes fed since the last frame, repaint them, and
+    // save a copy of the finished frame now and then
+    private void nextFrame() {
+        SeatChangeFeed feed = changeFeed;
+        if (feed != null && feed.drain(feedSink) > 0) {
+            PersistentLongRedBlackTree.Node<SeatAssignment> version = feed.getVersion();
+            if (version != tree) {
+                updateTreeVisualization(version);
             }
         }
+        repaintDirtyRows();
+        exportIfChanged();
     }
 
-    public void updateTreeVisualization(CowboySeatTree tree) {
-        // Store the tree for use in paintComponent
+    // Redraw every seat after the feed had to drop changes: seats start out free, and each reservation
+    // is colored on its own, as a fed change would color it
+    private void redrawStadium(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+                               PersistentLongRedBlackTree.Node<SeatAssignment> reservations) {
+        Arrays.fill(stadiumPixels, Color.BLACK.getRGB());
+        synchronized (stadiumLock) {
+            dirtyTop = 0;
+            dirtyBottom = STADIUM_SIZE - 1;
+            seatsSinceExport += stadiumPixels.length;
+        }
+        Iterator<SeatAssignment> reserved = PersistentLongRedBlackTree.values(reservations);
+        while (reserved.hasNext()) {
+            SeatAssignment reservation = reserved.next();
+            updateStadiumVisualization(reservation.getSeatStartIndex(), reservation.getSeatQuantity(), true);
+        }
+        updateTreeVisualization(freeBlocks);
+    }
+
+    // Repaint the band of rows changed since the last frame; runs on the EDT
+    private void repaintDirtyRows() {
+        int top;
+        int bottom;
+        synchronized (stadiumLock) {
+            top = dirtyTop;
+            bottom = dirtyBottom;
+            dirtyTop = Integer.MAX_VALUE;
+            dirtyBottom = -1;
+        }
+        if (bottom >= top) {
+            stadiumPanel.repaint(0, top, STADIUM_SIZE, bottom - top + 1);
+        }
+    }
+
+    public void updateTreeVisualization(PersistentLongRedBlackTree.Node<SeatAssignment> tree) {
+        // Store the version for use in paintComponent; it never changes, so no locking is needed
         this.tree = tree;
+        resizeTreePanel();
+    }
 
-        // Dynamically resize the tree panel based on the depth of the tree
-        int depth = calculateTreeDepth(tree.getRoot());
-        treePanel.setPreferredSize(new Dimension((int) (1000 * zoomFactor), (depth * 100)));  // Adjust the panel size
+    // Sizes the tree panel to the levels that will actually be drawn at the current zoom
+    private void resizeTreePanel() {
+        int height = (int) (treeHeight(tree) * zoomFactor);
+        treePanel.setPreferredSize(new Dimension((int) (TREE_WIDTH * zoomFactor), height));  // Adjust the panel size
         treePanel.revalidate();  // Revalidate to ensure scroll pane updates
         treePanel.repaint();  // Repaint to refresh the visualization
     }
 
-    // Helper function to calculate tree depth
-    private int calculateTreeDepth(CowboySeatTree.Node node) {
-        if (node == null) return 0;
-        int leftDepth = calculateTreeDepth(node.left);
-        int rightDepth = calculateTreeDepth(node.right);
-        return Math.max(leftDepth, rightDepth) + 1;
+    // Height of the drawing before zoom. Each node stores its subtree height, so this never walks the
+    // tree; levels below the zoom threshold are drawn as one row of glyphs
+    private int treeHeight(PersistentLongRedBlackTree.Node<SeatAssignment> root) {
+        if (root == null) return 2 * LEVEL_HEIGHT;
+        int levels = 1;
+        for (int xOffset = TREE_WIDTH / 4; levels < root.height && !collapsed(xOffset); xOffset /= 2) {
+            levels++;
+        }
+        return (levels + 2) * LEVEL_HEIGHT;
+    }
+
+    // Whether nodes this far apart are too close on screen to draw one by one
+    private boolean collapsed(int xOffset) {
+        return xOffset < Math.max(NODE_RADIUS, MIN_NODE_SPACING / zoomFactor);
     }
 }
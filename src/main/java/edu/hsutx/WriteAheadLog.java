@@ -0,0 +1,513 @@
+package edu.hsutx;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, crash-safe log of the reservations made and released in a CowboySeatTree.
+ *
+ * Each record stores the outcome of an operation (owner, first seat and seat count), not the request,
+ * so replaying it never searches for a block and does not depend on the placement rules in force.
+ * Records carry an increasing log sequence number (LSN) and a CRC32C; a torn or corrupt tail left by a
+ * crash is cut off when the log is opened.
+ *
+ * Appends only encode into a memory buffer. A background thread commits in groups: it waits until the
+ * commit interval has passed since the first pending record, or until enough bytes are pending, then
+ * writes them all and calls fsync once. {@link #getDurableLsn()} tells how far the log is on disk,
+ * and {@link #sync()} commits at once when a caller cannot wait for the interval.
+ *
+ * File layout: an 8-byte magic and version header, the LSN of the first record the file may hold,
+ * then records of {@code int payloadLength, int crc, long lsn, payload}, where the payload is
+ * {@code byte type, int start, int seats, short nameLength, UTF-8 name}.
+ */
+public class WriteAheadLog implements Closeable {
+    static final byte ALLOCATE = 'a';
+    static final byte RELEASE = 'd';
+
+    private static final int MAGIC = 0x4353574C;  // "CSWL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 16;
+    private static final int GROUP_BYTES = 256 * 1024;
+    private static final long DEFAULT_COMMIT_MILLIS = 5;
+
+    private final Path file;
+    private final long commitNanos;
+    private FileChannel channel;
+
+    // Everything below is guarded by lock, except the channel, which is guarded by ioLock.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(GROUP_BYTES);
+    private ByteBuffer writing = ByteBuffer.allocate(GROUP_BYTES);
+    private long firstPendingNanos;
+    private long nextLsn;
+    private long durableLsn;
+    private IOException failure;
+    private boolean closed;
+    private final Thread committer;
+
+    /**
+     * Opens a log with the default 5 ms commit interval, creating it if needed.
+     *
+     * @param file The log file.
+     * @throws IOException If the file cannot be opened or its header is not a log header.
+     */
+    public WriteAheadLog(Path file) throws IOException {
+        this(file, DEFAULT_COMMIT_MILLIS);
+    }
+
+    /**
+     * Opens a log, creating it if needed. Any torn record at the end is truncated and appends
+     * continue after the last complete record.
+     *
+     * @param file         The log file.
+     * @param commitMillis How long to gather records before a group commit.
+     * @throws IOException If the file cannot be opened or its header is not a log header.
+     */
+    public WriteAheadLog(Path file, long commitMillis) throws IOException {
+        this.file = file;
+        this.commitNanos = TimeUnit.MILLISECONDS.toNanos(commitMillis);
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            writeEmptyLog(file, 1);
+            syncDirectory(file);
+        }
+
+        long[] end = new long[2];  // valid byte length, last LSN
+        long baseLsn = scan(file, record -> { }, end);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        if (channel.size() > end[0]) {
+            channel.truncate(end[0]);
+            channel.force(true);
+        }
+        channel.position(end[0]);
+        nextLsn = Math.max(baseLsn, end[1] + 1);
+        durableLsn = nextLsn - 1;
+
+        committer = new Thread(this::commitLoop, "wal-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Receives records read back from a log.
+     */
+    interface RecordVisitor {
+        void visit(Record record) throws IOException;
+    }
+
+    /**
+     * One decoded record.
+     */
+    static final class Record {
+        long lsn;
+        byte type;
+        int start;
+        int seats;
+        String owner;
+    }
+
+    /**
+     * Appends a reservation that was made.
+     *
+     * @param reservation The new reservation.
+     * @return The record's LSN.
+     * @throws IOException If an earlier commit failed or the log is closed.
+     */
+    public long logAllocate(SeatAssignment reservation) throws IOException {
+        return append(ALLOCATE, reservation);
+    }
+
+    /**
+     * Appends a reservation that was cancelled.
+     *
+     * @param reservation The released reservation.
+     * @return The record's LSN.
+     * @throws IOException If an earlier commit failed or the log is closed.
+     */
+    public long logRelease(SeatAssignment reservation) throws IOException {
+        return append(RELEASE, reservation);
+    }
+
+    private long append(byte type, SeatAssignment reservation) throws IOException {
+        byte[] name = reservation.getOwner().getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFFFF) throw new IOException("Owner name is too long to log");
+        int payloadLength = 11 + name.length;
+
+        lock.lock();
+        try {
+            if (failure != null) throw failure;
+            if (closed) throw new IOException("Write-ahead log is closed");
+            if (pending.remaining() < RECORD_HEADER_BYTES + payloadLength) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + RECORD_HEADER_BYTES + payloadLength));
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+
+            long lsn = nextLsn++;
+            boolean wasEmpty = pending.position() == 0;
+            encode(pending, lsn, type, reservation.getSeatStartIndex(), reservation.getSeatQuantity(), name);
+
+            if (wasEmpty) {
+                firstPendingNanos = System.nanoTime();
+                hasWork.signal();
+            } else if (pending.position() >= GROUP_BYTES) {
+                hasWork.signal();
+            }
+            return lsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Commits everything appended so far without waiting for the commit interval.
+     *
+     * @throws IOException If the commit fails.
+     */
+    public void sync() throws IOException {
+        commitPending();
+        lock.lock();
+        try {
+            if (failure != null) throw failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the LSN of the newest record on disk.
+     *
+     * @return The durable LSN, or the LSN before the first record if nothing has been written.
+     */
+    public long getDurableLsn() {
+        lock.lock();
+        try {
+            return durableLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the LSN of the newest record appended, durable or not.
+     *
+     * @return The last LSN assigned.
+     */
+    public long getLastLsn() {
+        lock.lock();
+        try {
+            return nextLsn - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the records after a given LSN to a seat tree that already holds the state as of that LSN,
+     * such as a fresh stadium (LSN 0) or a loaded snapshot.
+     *
+     * @param seatTree The tree to bring up to date.
+     * @param afterLsn The last LSN the tree already reflects.
+     * @return The number of records applied.
+     * @throws IOException If the log cannot be read or a record does not match the tree.
+     */
+    public long replay(CowboySeatTree seatTree, long afterLsn) throws IOException {
+        sync();
+        long[] applied = new long[1];
+        ioLock.lock();
+        try {
+            scan(file, record -> {
+                if (record.lsn <= afterLsn) return;
+                if (record.type == ALLOCATE) {
+                    if (seatTree.reserve(record.owner, record.seats, record.start) == null) {
+                        throw new IOException("Log record " + record.lsn + " reserves seats that are not free");
+                    }
+                } else {
+                    SeatAssignment reservation = seatTree.getReservation(record.start);
+                    if (reservation == null || !record.owner.equals(reservation.getOwner())
+                            || seatTree.release(reservation) == null) {
+                        throw new IOException("Log record " + record.lsn + " releases a reservation that does not exist");
+                    }
+                }
+                applied[0]++;
+            }, new long[2]);
+        } finally {
+            ioLock.unlock();
+        }
+        return applied[0];
+    }
+
+    /**
+     * Drops every record up to and including an LSN, once the state it describes is saved elsewhere
+     * (for example in a snapshot). The remaining tail is copied to a new file that atomically replaces
+     * the log; appends may continue meanwhile.
+     *
+     * @param lsn The last LSN that is no longer needed.
+     * @throws IOException If the log cannot be rewritten.
+     */
+    public void truncateThrough(long lsn) throws IOException {
+        if (lsn > getLastLsn()) {
+            throw new IllegalArgumentException("Cannot truncate past the last LSN, " + getLastLsn());
+        }
+        ioLock.lock();
+        try {
+            commitPending();
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            writeEmptyLog(temp, lsn + 1);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                out.position(out.size());
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+                scan(file, record -> {
+                    if (record.lsn <= lsn) return;
+                    byte[] name = record.owner.getBytes(StandardCharsets.UTF_8);
+                    if (buffer.remaining() < RECORD_HEADER_BYTES + 11 + name.length) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) out.write(buffer);
+                        buffer.clear();
+                    }
+                    encode(buffer, record.lsn, record.type, record.start, record.seats, name);
+                }, new long[2]);
+                buffer.flip();
+                while (buffer.hasRemaining()) out.write(buffer);
+                out.force(true);
+            }
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(file);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Commits anything pending, stops the commit thread and closes the file.
+     *
+     * @throws IOException If the final commit fails.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            channel.close();
+        } finally {
+            ioLock.unlock();
+        }
+        lock.lock();
+        try {
+            if (failure != null) throw failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Background loop: waits for records, lets a group gather for the commit interval, then commits it.
+     */
+    private void commitLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    hasWork.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) return;
+                long remaining;
+                while (!closed && pending.position() < GROUP_BYTES
+                        && (remaining = firstPendingNanos + commitNanos - System.nanoTime()) > 0) {
+                    hasWork.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            commitPending();
+        }
+    }
+
+    /**
+     * Writes and fsyncs every pending record as one group.
+     */
+    private void commitPending() {
+        ioLock.lock();
+        try {
+            long groupLsn;
+            lock.lock();
+            try {
+                if (pending.position() == 0 || failure != null) return;
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                groupLsn = nextLsn - 1;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            writing.clear();
+
+            lock.lock();
+            try {
+                if (error == null) {
+                    durableLsn = groupLsn;
+                } else {
+                    failure = error;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Encodes one record, with its CRC, into a heap buffer that has room for it.
+     */
+    private static void encode(ByteBuffer buffer, long lsn, byte type, int start, int seats, byte[] name) {
+        int recordStart = buffer.position();
+        buffer.putInt(11 + name.length).putInt(0).putLong(lsn)
+                .put(type).putInt(start).putInt(seats)
+                .putShort((short) name.length).put(name);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), recordStart + 8, buffer.position() - recordStart - 8);
+        buffer.putInt(recordStart + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Flushes the directory entry of a file that was just created or renamed, so the new name
+     * survives a crash. Windows cannot open a directory as a channel and needs no such flush.
+     *
+     * @param path The file whose directory to flush.
+     * @throws IOException If the directory cannot be flushed.
+     */
+    static void syncDirectory(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null || System.getProperty("os.name").startsWith("Windows")) return;
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    /**
+     * Creates a log file with no records.
+     *
+     * @param path    Where to write it.
+     * @param baseLsn The LSN the first record will have.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeEmptyLog(Path path, long baseLsn) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(baseLsn);
+        header.flip();
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) out.write(header);
+            out.force(true);
+        }
+    }
+
+    /**
+     * Reads every complete, intact record in order, stopping at the first torn or corrupt one.
+     *
+     * @param path    The log file.
+     * @param visitor Called with each record; the record object is reused.
+     * @param end     Receives the byte length of the valid prefix and the last LSN read.
+     * @return The base LSN from the header.
+     * @throws IOException If the file cannot be read, is not a log, or the visitor fails.
+     */
+    private static long scan(Path path, RecordVisitor visitor, long[] end) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            long baseLsn;
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException(path + " is not a write-ahead log");
+                }
+                baseLsn = in.readLong();
+            } catch (EOFException e) {
+                throw new IOException(path + " is not a write-ahead log", e);
+            }
+
+            long offset = HEADER_BYTES;
+            long lastLsn = baseLsn - 1;
+            Record record = new Record();
+            byte[] payload = new byte[256];
+            CRC32C crc = new CRC32C();
+            while (true) {
+                int length;
+                int storedCrc;
+                try {
+                    length = in.readInt();
+                    storedCrc = in.readInt();
+                    if (length < 11 || length > 11 + 0xFFFF) break;
+                    record.lsn = in.readLong();
+                    if (payload.length < length) payload = new byte[length];
+                    in.readFully(payload, 0, length);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                ByteBuffer lsnBytes = ByteBuffer.allocate(8).putLong(0, record.lsn);
+                crc.update(lsnBytes.array(), 0, 8);
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != storedCrc || record.lsn <= lastLsn) break;
+
+                ByteBuffer fields = ByteBuffer.wrap(payload, 0, length);
+                record.type = fields.get();
+                record.start = fields.getInt();
+                record.seats = fields.getInt();
+                int nameLength = fields.getShort() & 0xFFFF;
+                if (nameLength != length - 11 || (record.type != ALLOCATE && record.type != RELEASE)) break;
+                record.owner = new String(payload, 11, nameLength, StandardCharsets.UTF_8);
+
+                visitor.visit(record);
+                lastLsn = record.lsn;
+                offset += RECORD_HEADER_BYTES + length;
+            }
+            end[0] = offset;
+            end[1] = lastLsn;
+            return baseLsn;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CowboySeatTree class.
+ */
+public class CowboySeatTreeTest {
+
+    private CowboySeatTree tree;
+
+    @BeforeEach
+    public void setUp() {
+        tree = new CowboySeatTree();
+    }
+
+    @Test
+    public void testThresholdSkipsReservations() {
+        tree.insert(new SeatAssignment("Big Party", 500, 1));
+        tree.insert(new SeatAssignment(20, 501));
+        tree.insert(new SeatAssignment(80, 521));
+        tree.insert(new SeatAssignment("Other Party", 300, 601));
+
+        SeatAssignment found = tree.getUnassignedBlockOverThreshold(50);
+
+        assertEquals(80, found.getSeatQuantity(), "Smallest sufficient free block should be returned.");
+        assertEquals(521, found.getSeatStartIndex());
+        assertNull(tree.getUnassignedBlockOverThreshold(81), "Reserved blocks should never be returned.");
+        assertEquals(80, tree.getLargestUnassignedBlock());
+    }
+
+    @Test
+    public void testLargestBlockTracksDeletes() {
+        for (int i = 0; i < 200; i++) {
+            tree.insert(new SeatAssignment(i + 1, i * 1000 + 1));
+            tree.insert(new SeatAssignment("Owner " + i, 1000 - i - 1, i * 1000 + i + 2));
+        }
+        assertEquals(200, tree.getLargestUnassignedBlock());
+
+        tree.delete(new SeatAssignment(200, 199001));
+
+        assertEquals(199, tree.getLargestUnassignedBlock(), "Deleting the largest free block should lower the maximum.");
+        assertEquals(150, tree.getUnassignedBlockOverThreshold(150).getSeatQuantity());
+        assertTrue(tree.validateRedBlackTree(), "Augmented values should stay consistent.");
+    }
+
+    @Test
+    public void testReservationsAreIndexedSeparately() {
+        SeatAssignment party = new SeatAssignment("Party", 40, 101);
+        tree.insert(new SeatAssignment(100, 1));
+        tree.insert(party);
+        tree.insert(new SeatAssignment(60, 141));
+
+        assertEquals(2, tree.getFreeBlockCount(), "Only unassigned blocks belong in the free-block tree.");
+        assertEquals(1, tree.getReservationCount());
+        assertSame(party, tree.getReservation("Party"), "Reservations should be found by owner.");
+        assertSame(party, tree.getReservation(101), "Reservations should be found by starting seat.");
+        assertSame(party, tree.getValue(party.getKey()), "Reservations should be found by key.");
+
+        tree.delete(party);
+
+        assertNull(tree.getReservation("Party"), "Deleted reservations should leave the owner index.");
+        assertEquals(2, tree.getSize());
+    }
+
+    @Test
+    public void testReleaseMergesNeighbors() {
+        SeatAssignment first = new SeatAssignment("First", 10, 11);
+        SeatAssignment second = new SeatAssignment("Second", 10, 21);
+        tree.insert(new SeatAssignment(10, 1));
+        tree.insert(first);
+        tree.insert(second);
+        tree.insert(new SeatAssignment(10, 31));
+
+        SeatAssignment merged = tree.release(first);
+
+        assertEquals(20, merged.getSeatQuantity(), "Released seats should join the free block before them.");
+        assertEquals(1, merged.getSeatStartIndex());
+        assertEquals(2, tree.getFreeBlockCount());
+
+        merged = tree.release(second);
+
+        assertEquals(40, merged.getSeatQuantity(), "Released seats should join free blocks on both sides.");
+        assertEquals(1, tree.getFreeBlockCount());
+        assertSame(merged, tree.getFreeBlockContaining(25));
+        assertSame(merged, tree.getUnassignedBlockOverThreshold(35));
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    @Test
+    public void testReleaseIgnoresStaleHandles() {
+        for (CowboySeatTree.Backend backend : CowboySeatTree.Backend.values()) {
+            CowboySeatTree t = new CowboySeatTree(backend);
+            t.insert(new SeatAssignment(100, 1));
+            SeatAssignment booked = t.reserve("Ann", 10, 11);
+
+            assertNull(t.release(new SeatAssignment("Ann", 5, 11)), backend + ": a handle with other seats should not match.");
+            assertSame(booked, t.getReservation(11), backend + ": the booking at that seat should be kept.");
+            assertSame(booked, t.getReservation("Ann"));
+            assertEquals(90, t.getFreeSeatCount());
+            assertTrue(t.validateRedBlackTree());
+        }
+    }
+
+    @Test
+    public void testArenaBackendMatchesNodeBackend() {
+        CowboySeatTree arena = new CowboySeatTree(CowboySeatTree.Backend.ARENA);
+        tree.insert(new SeatAssignment(100000, 1));
+        arena.insert(new SeatAssignment(100000, 1));
+        List<SeatAssignment> booked = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 3000; i++) {
+            if (booked.isEmpty() || random.nextInt(4) > 0) {
+                int seats = 1 + random.nextInt(60);
+                SeatAssignment free = tree.getUnassignedBlockOverThreshold(seats);
+                SeatAssignment arenaFree = arena.getUnassignedBlockOverThreshold(seats);
+                if (free == null) {
+                    assertNull(arenaFree);
+                    continue;
+                }
+                assertEquals(free.getKey(), arenaFree.getKey(), "Both backends should pick the same block.");
+                SeatAssignment party = new SeatAssignment("Party " + i, seats, free.getSeatStartIndex());
+                for (CowboySeatTree t : new CowboySeatTree[]{tree, arena}) {
+                    SeatAssignment block = t.getUnassignedBlockOverThreshold(seats);
+                    t.delete(block);
+                    t.insert(party);
+                    if (block.getSeatQuantity() > seats) {
+                        t.insert(new SeatAssignment(block.getSeatQuantity() - seats, block.getSeatStartIndex() + seats));
+                    }
+                }
+                booked.add(party);
+            } else {
+                SeatAssignment party = booked.remove(random.nextInt(booked.size()));
+                assertEquals(tree.release(party).getKey(), arena.release(party).getKey());
+            }
+        }
+
+        assertEquals(tree.getFreeBlockCount(), arena.getFreeBlockCount());
+        assertEquals(tree.getReservationCount(), arena.getReservationCount());
+        assertEquals(tree.getLargestUnassignedBlock(), arena.getLargestUnassignedBlock());
+        assertTrue(arena.validateRedBlackTree(), "Arena trees should stay valid.");
+    }
+
+    @Test
+    public void testDashboardQueries() {
+        for (CowboySeatTree t : new CowboySeatTree[]{tree, new CowboySeatTree(CowboySeatTree.Backend.ARENA),
+                new CowboySeatTree(CowboySeatTree.Backend.PERSISTENT)}) {
+            t.insert(new SeatAssignment(100, 1));
+            t.insert(new SeatAssignment("A", 50, 101));
+            t.insert(new SeatAssignment(30, 151));
+            t.insert(new SeatAssignment("B", 20, 181));
+            t.insert(new SeatAssignment(70, 201));
+
+            assertEquals(200, t.getFreeSeatCount());
+            assertEquals(70, t.getReservedSeatCount());
+            assertEquals(100, t.getKthLargestFreeBlock(1).getSeatQuantity());
+            assertEquals(70, t.getKthLargestFreeBlock(2).getSeatQuantity());
+            assertNull(t.getKthLargestFreeBlock(4));
+            assertEquals(2, t.countFreeBlocksOverThreshold(31));
+            assertEquals(1, t.countReservationsInRange(150, 300));
+            assertEquals(70, t.getReservedSeatsInRange(1, 1000));
+        }
+    }
+
+    @Test
+    public void testLoadMergesFreeBlocksAndIndexesReservations() {
+        List<SeatAssignment> map = new ArrayList<>();
+        map.add(new SeatAssignment(10, 1));
+        map.add(new SeatAssignment(5, 11));
+        map.add(new SeatAssignment("A", 20, 16));
+        map.add(new SeatAssignment(30, 36));
+        map.add(new SeatAssignment("B", 4, 66));
+
+        tree.load(map.iterator());
+
+        assertEquals(2, tree.getFreeBlockCount(), "Adjacent free blocks should be merged while loading.");
+        assertEquals(15, tree.getFreeBlockContaining(11).getSeatQuantity());
+        assertEquals(2, tree.getReservationCount());
+        assertEquals(20, tree.getReservation("A").getSeatQuantity());
+        assertEquals(30, tree.getUnassignedBlockOverThreshold(16).getSeatQuantity());
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    @Test
+    public void testOutOfRangePreferenceStaysInsideBlock() {
+        tree.insert(new SeatAssignment(100, 1));
+
+        SeatAssignment back = tree.allocate("Back", 10, 101);
+        SeatAssignment front = tree.allocate("Front", 10, -5);
+
+        assertEquals(91, back.getSeatStartIndex(), "A preference above 100 should sit at the very back.");
+        assertEquals(1, front.getSeatStartIndex(), "A negative preference should sit at the very front.");
+
+        Iterator<SeatAssignment> blocks = tree.blocks();
+        int nextSeat = 1;
+        while (blocks.hasNext()) {
+            SeatAssignment block = blocks.next();
+            assertEquals(nextSeat, block.getSeatStartIndex(), "Blocks should tile the stadium in seat order.");
+            nextSeat += block.getSeatQuantity();
+        }
+        assertEquals(101, nextSeat);
+    }
+
+    @Test
+    public void testAllocateRejectsEmptyAndNegativeParties() {
+        tree.insert(new SeatAssignment(100, 1));
+        for (CowboySeatTree.Placement placement : CowboySeatTree.Placement.values()) {
+            assertNull(tree.allocate("Zed", 0, 0, placement), "A party of no seats should not be booked.");
+            assertNull(tree.allocate("Neg", -5, 0, placement), "A negative party should not be booked.");
+        }
+        assertNull(tree.allocate("Zed", 0, 0));
+        assertEquals(100, tree.getFreeSeatCount());
+        assertEquals(0, tree.getReservationCount());
+
+        SeatAssignment bob = tree.allocate("Bob", 10, 0);
+        assertEquals(1, bob.getSeatStartIndex());
+        assertEquals(90, tree.getFreeSeatCount());
+        assertEquals(10, tree.getReservedSeatCount());
+        assertEquals(100, tree.cancel("Bob").getSeatQuantity(), "Bob's seats should merge back into one free block.");
+        assertEquals(100, tree.getFreeSeatCount());
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    @Test
+    public void testAllocateNearRejectsEmptyAndNegativeParties() {
+        tree.insert(new SeatAssignment(100, 1));
+        assertNull(tree.allocateNear("Zed", 0, 50), "A party of no seats should not be booked.");
+        assertNull(tree.allocateNear("Neg", -5, 50), "A negative party should not be booked.");
+        assertEquals(100, tree.getFreeSeatCount());
+        assertEquals(0, tree.getReservationCount());
+
+        SeatAssignment bob = tree.allocateNear("Bob", 10, 50);
+        assertEquals(46, bob.getSeatStartIndex());
+        assertEquals(90, tree.getFreeSeatCount());
+        assertEquals(100, tree.cancel("Bob").getSeatQuantity());
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    @Test
+    public void testPlacementPolicies() {
+        tree.insert(new SeatAssignment(100, 1));
+        tree.insert(new SeatAssignment("A", 1, 101));
+        tree.insert(new SeatAssignment(12, 102));
+        tree.insert(new SeatAssignment("B", 1, 114));
+        tree.insert(new SeatAssignment(10, 115));
+
+        SeatAssignment best = tree.allocate("Best", 10, 50, CowboySeatTree.Placement.BEST_FIT);
+        assertEquals(115, best.getSeatStartIndex(), "Best fit should take the exact-size block.");
+
+        SeatAssignment worst = tree.allocate("Worst", 4, 50, CowboySeatTree.Placement.WORST_FIT);
+        assertEquals(49, worst.getSeatStartIndex(), "Worst fit should split the largest block at the preference.");
+        tree.release(worst);
+
+        SeatAssignment edge = tree.allocate("Edge", 4, 80, CowboySeatTree.Placement.PREFERENCE_BEST_FIT);
+        assertEquals(110, edge.getSeatStartIndex(), "A back preference should sit flush with the end of the block.");
+        assertEquals(8, tree.getFreeBlockContaining(102).getSeatQuantity(), "Only one fragment should be left.");
+        tree.release(edge);
+
+        tree.setMinimumFragment(5);
+        SeatAssignment tidy = tree.allocate("Tidy", 9, 0, CowboySeatTree.Placement.MIN_FRAGMENT);
+        assertEquals(1, tidy.getSeatStartIndex(), "A 3-seat leftover is too small, so the larger block should be used.");
+        assertEquals(12, tree.getFreeBlockContaining(102).getSeatQuantity());
+
+        tree.setPlacement(CowboySeatTree.Placement.MIN_FRAGMENT);
+        SeatAssignment exact = tree.allocate("Exact", 12, 0);
+        assertEquals(102, exact.getSeatStartIndex(), "An exact fit leaves no fragment at all.");
+        assertNull(tree.allocate("Huge", 1000, 0, CowboySeatTree.Placement.WORST_FIT));
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    @Test
+    public void testNearestFreeBlockMatchesScan() {
+        for (CowboySeatTree.Backend backend : CowboySeatTree.Backend.values()) {
+            CowboySeatTree t = new CowboySeatTree(backend);
+            t.insert(new SeatAssignment(20000, 1));
+            Random random = new Random(11);
+            for (int i = 0; i < 1500; i++) {
+                t.allocate("Party " + i, 1 + random.nextInt(12), random.nextInt(101));
+            }
+
+            for (int query = 0; query < 500; query++) {
+                int target = 1 + random.nextInt(20000);
+                int seats = 1 + random.nextInt(40);
+                SeatAssignment expected = null;
+                long expectedDistance = Long.MAX_VALUE;
+                Iterator<SeatAssignment> blocks = t.blocks();
+                while (blocks.hasNext()) {
+                    SeatAssignment block = blocks.next();
+                    if (block.getOwner() != null || block.getSeatQuantity() < seats) continue;
+                    int last = block.getSeatStartIndex() + block.getSeatQuantity() - 1;
+                    long distance = Math.max(0, Math.max(block.getSeatStartIndex() - target, target - last));
+                    if (distance < expectedDistance) {
+                        expected = block;
+                        expectedDistance = distance;
+                    }
+                }
+                assertSame(expected, t.getNearestFreeBlock(target, seats), backend + " target " + target + " seats " + seats);
+            }
+
+            assertTrue(t.validateRedBlackTree());
+        }
+
+        tree.insert(new SeatAssignment(30, 1));
+        tree.insert(new SeatAssignment("A", 70, 31));
+        tree.insert(new SeatAssignment(100, 101));
+        assertEquals(101, tree.allocateNear("Near", 5, 88).getSeatStartIndex(), "A reserved target should use the nearer block.");
+        assertEquals(149, tree.allocateNear("Centred", 5, 151).getSeatStartIndex(), "A free target should be centred in the party.");
+        assertEquals(26, tree.allocateNear("Back", 5, 40).getSeatStartIndex(), "A target past the block should use its last seats.");
+    }
+
+    @Test
+    public void testBatchAllocation() {
+        Random random = new Random(5);
+        ReservationCommand[] batch = new ReservationCommand[400];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new ReservationCommand();
+            batch[i].type = ReservationCommand.ADD;
+            batch[i].name = "Party " + i;
+            batch[i].seatsNeeded = 1 + random.nextInt(30);
+            batch[i].preference = random.nextInt(101);
+            batch[i].targetSeat = i % 10 == 0 ? 1 + random.nextInt(5000) : 0;
+        }
+
+        for (CowboySeatTree.Backend backend : CowboySeatTree.Backend.values()) {
+            CowboySeatTree serial = new CowboySeatTree(backend);
+            CowboySeatTree strict = new CowboySeatTree(backend);
+            serial.insert(new SeatAssignment(5000, 1));
+            strict.insert(new SeatAssignment(5000, 1));
+            SeatAssignment[] reserved = strict.allocateBatch(batch, batch.length, true);
+            for (int i = 0; i < batch.length; i++) {
+                SeatAssignment expected = batch[i].getTargetSeat() > 0
+                        ? serial.allocateNear(batch[i].getName(), batch[i].getSeatsNeeded(), batch[i].getTargetSeat())
+                        : serial.allocate(batch[i].getName(), batch[i].getSeatsNeeded(), batch[i].getPreference());
+                assertEquals(expected == null ? null : expected.getKey(), reserved[i] == null ? null : reserved[i].getKey(),
+                        "Strict batches should match serial allocation.");
+            }
+
+            // Large enough to place more parties than there are blocks, so both apply paths run
+            for (int count : new int[]{40, batch.length}) {
+                CowboySeatTree t = new CowboySeatTree(backend);
+                t.insert(new SeatAssignment(5000, 1));
+                for (int i = 0; i < 60; i++) {
+                    t.allocate("Early " + i, 1 + random.nextInt(40), random.nextInt(101));
+                }
+                long freeBefore = t.getFreeSeatCount();
+                reserved = t.allocateBatch(batch, count, false);
+
+                long booked = 0;
+                for (int i = 0; i < count; i++) {
+                    if (reserved[i] == null) continue;
+                    assertEquals(batch[i].getSeatsNeeded(), reserved[i].getSeatQuantity());
+                    assertSame(reserved[i], t.getReservation(batch[i].getName()));
+                    booked += reserved[i].getSeatQuantity();
+                }
+                assertEquals(freeBefore - booked, t.getFreeSeatCount(), "Every booked seat should leave the free pool.");
+                Iterator<SeatAssignment> blocks = t.blocks();
+                int nextSeat = 1;
+                while (blocks.hasNext()) {
+                    SeatAssignment block = blocks.next();
+                    assertEquals(nextSeat, block.getSeatStartIndex(), "Blocks should tile the stadium without overlaps.");
+                    nextSeat += block.getSeatQuantity();
+                }
+                assertEquals(5001, nextSeat);
+                assertTrue(t.validateRedBlackTree());
+            }
+        }
+    }
+
+    @Test
+    public void testOwnersCanHoldSeveralBookings() {
+        for (CowboySeatTree.Backend backend : CowboySeatTree.Backend.values()) {
+            CowboySeatTree t = new CowboySeatTree(backend);
+            t.insert(new SeatAssignment(1000, 1));
+            SeatAssignment first = t.allocate("Ann", 10, 0);
+            SeatAssignment second = t.allocate("Ann", 20, 0);
+            t.allocate("Bo", 5, 0);
+
+            assertSame(second, t.getReservation("Ann"));
+            assertEquals(2, t.getReservations("Ann").length);
+            assertEquals(11, t.cancel("Ann").getSeatStartIndex(), "Cancelling should release the latest booking.");
+            assertSame(first, t.getReservation("Ann"), "The earlier booking should still be found after the later one is cancelled.");
+            assertTrue(t.release(first) != null);
+            assertNull(t.getReservation("Ann"));
+            assertNull(t.cancel("Ann"));
+            assertEquals(1, t.getReservationCount());
+            assertTrue(t.validateRedBlackTree());
+        }
+    }
+}
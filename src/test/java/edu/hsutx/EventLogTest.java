@@ -0,0 +1,144 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the EventLog class.
+ */
+public class EventLogTest {
+
+    /**
+     * Copies out the fields a test checks, since events are reused.
+     */
+    private static class CollectingSink implements EventSink {
+        final List<Long> sequences = new ArrayList<>();
+        final List<String> owners = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void write(LogEvent event) {
+            sequences.add(event.getSequence());
+            owners.add(event.getOwner());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testEveryEventArrivesInOrderThroughASmallRing() throws Exception {
+        CollectingSink sink = new CollectingSink();
+        EventLog log = new EventLog(sink, EventLog.Level.INFO, 4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            String owner = "T" + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    log.allocated(new SeatAssignment(owner, 1, i), 0);
+                    log.message(EventLog.Level.DEBUG, "not recorded");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.close();
+
+        assertTrue(sink.closed, "Closing the log should close the sink.");
+        assertEquals(6000, sink.sequences.size(), "Producers should wait for space instead of dropping events.");
+        for (int i = 0; i < sink.sequences.size(); i++) {
+            assertEquals(i, sink.sequences.get(i), "Events should reach the sink in sequence order.");
+        }
+    }
+
+    @Test
+    public void testJsonLinesEscapesOwnerNames() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EventLog log = new EventLog(new JsonLinesSink(bytes), EventLog.Level.ERROR);
+        ReservationCommand command = new ReservationCommand();
+        command.type = ReservationCommand.DELETE;
+        command.name = "Dwayne \"The Rock\" Johnson";
+
+        log.rejected(command);
+        log.allocated(new SeatAssignment("Ignored", 2, 1), 0);
+        log.close();
+
+        String json = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"event\":\"REJECTED\",\"command\":\"d\",\"owner\":\"Dwayne \\\"The Rock\\\" Johnson\"}\n"));
+        assertEquals(1, json.split("\n").length, "INFO events should be skipped at level ERROR.");
+        assertFalse(EventLog.disabled().isEnabled(EventLog.Level.ERROR));
+    }
+
+    @Test
+    public void testRejectedNearSeatRequestsKeepTheirTarget() throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        EventLog jsonLog = new EventLog(new JsonLinesSink(json), EventLog.Level.ERROR);
+        EventLog consoleLog = new EventLog(new ConsoleSink(new PrintStream(console, true, StandardCharsets.UTF_8)), EventLog.Level.ERROR);
+        ReservationCommand command = new ReservationCommand();
+        command.type = ReservationCommand.ADD;
+        command.name = "Ann Lee";
+        command.seatsNeeded = 4;
+        command.preference = 50;
+        command.targetSeat = 1200;
+
+        jsonLog.rejected(command);
+        consoleLog.rejected(command);
+        command.targetSeat = 0;
+        jsonLog.rejected(command);
+        jsonLog.close();
+        consoleLog.close();
+
+        String[] lines = json.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[0].endsWith("\"seats\":4,\"pref\":50,\"targetSeat\":1200}"));
+        assertTrue(lines[1].endsWith("\"seats\":4,\"pref\":50}"), "Plain requests should have no target seat.");
+        assertTrue(console.toString(StandardCharsets.UTF_8).startsWith("Error: could not add 4 seats for Ann Lee near seat 1200 --"));
+    }
+
+    @Test
+    public void testSinkFailuresAreCountedAndReportedOnClose() {
+        EventSink broken = new EventSink() {
+            @Override
+            public void write(LogEvent event) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        EventLog log = new EventLog(broken, EventLog.Level.INFO, 4);
+        for (int i = 0; i < 10; i++) {
+            log.allocated(new SeatAssignment("Ann Lee", 1, i + 1), 0);
+        }
+
+        IOException failure = assertThrows(IOException.class, log::close);
+        assertEquals("disk full", failure.getMessage());
+        assertEquals(10, log.getSinkFailureCount(), "Every lost event should be counted.");
+    }
+}
@@ -0,0 +1,183 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LongRedBlackTree class.
+ */
+public class LongRedBlackTreeTest {
+
+    private LongRedBlackTree<Integer> tree;
+
+    @BeforeEach
+    public void setUp() {
+        tree = new LongRedBlackTree<>();
+    }
+
+    /* ------------------ Insertion Tests ------------------ */
+
+    @Test
+    public void testInsertAscending() {
+        for (int i = 1; i <= 100; i++) {
+            tree.insert(i, i * 10);
+        }
+
+        assertTrue(tree.validateRedBlackTree(), "Tree should be valid after ascending insertions.");
+        assertEquals(100, tree.getSize(), "Size should count every insertion.");
+        assertEquals(500, tree.getValue(50), "Inserted value should be retrievable.");
+    }
+
+    @Test
+    public void testInsertDuplicateKey() {
+        tree.insert(7L, 100);
+        tree.insert(7L, 200);
+
+        assertEquals(1, tree.getSize(), "Duplicate key should not be inserted.");
+        assertEquals(100, tree.getValue(7L), "Value should remain unchanged when inserting duplicate key.");
+    }
+
+    @Test
+    public void testPackedSeatKeysKeepStringOrder() {
+        long small = SeatAssignment.packKey(5, 900000);
+        long large = SeatAssignment.packKey(6, 1);
+
+        assertTrue(small < large, "Quantity should dominate the ordering.");
+        assertTrue(SeatAssignment.packKey(5, 2) > SeatAssignment.packKey(5, 1), "Start index should break ties.");
+        assertEquals(small, SeatAssignment.parseKey(new SeatAssignment(5, 900000).getKey()));
+    }
+
+    /* ------------------ Deletion Tests ------------------ */
+
+    @Test
+    public void testDeleteRootNode() {
+        tree.insert(1L, 1);
+        tree.delete(1L);
+
+        assertTrue(tree.isEmpty(), "Tree should be empty after deleting the root node.");
+        assertEquals(0, tree.getSize());
+    }
+
+    @Test
+    public void testDeleteNodeWithTwoChildren() {
+        long[] keys = {50, 20, 80, 10, 30, 70, 90};
+        for (long key : keys) {
+            tree.insert(key, (int) key);
+        }
+
+        tree.delete(20L);
+
+        assertNull(tree.getValue(20L), "Node with two children should be deleted.");
+        assertEquals(10, tree.getValue(10L), "Left child should still exist.");
+        assertEquals(30, tree.getValue(30L), "Right child should still exist.");
+        assertTrue(tree.validateRedBlackTree(), "Tree should be valid after deleting a node with two children.");
+    }
+
+    @Test
+    public void testRandomMixMatchesTreeMap() {
+        Random random = new Random(42);
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextInt(3) > 0) {
+                tree.insert(key, i);
+                expected.putIfAbsent(key, i);
+            } else {
+                assertEquals(expected.remove(key), tree.delete(key), "Delete should return the removed value.");
+            }
+        }
+
+        assertTrue(tree.validateRedBlackTree(), "Tree should be valid after a random mix of operations.");
+        assertEquals(expected.size(), tree.getSize());
+        for (long key = 0; key < 2000; key++) {
+            assertEquals(expected.get(key), tree.getValue(key));
+        }
+        assertFalse(tree.isEmpty());
+    }
+
+    /* ------------------ Order Statistic Tests ------------------ */
+
+    @Test
+    public void testSelectAndRank() {
+        for (long key = 10; key <= 1000; key += 10) {
+            tree.insert(key, (int) key);
+        }
+        tree.delete(500L);
+
+        assertEquals(10, tree.select(0), "Smallest key should be at position 0.");
+        assertEquals(1000, tree.select(tree.getSize() - 1), "Largest key should be last.");
+        assertEquals(510, tree.select(49), "Deleted keys should not take a position.");
+        assertNull(tree.select(tree.getSize()));
+        assertEquals(49, tree.rank(510L));
+        assertEquals(49, tree.rank(505L), "Missing keys should rank where they would be inserted.");
+        assertEquals(5, tree.countInRange(15, 65));
+    }
+
+    @Test
+    public void testSumInRangeMatchesBruteForce() {
+        LongRedBlackTree<Integer> weighted = new LongRedBlackTree<>() {
+            @Override
+            protected long weight(Integer value) {
+                return value;
+            }
+        };
+        Random random = new Random(9);
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long key = random.nextInt(1000);
+            if (random.nextInt(4) > 0) {
+                int value = random.nextInt(100);
+                weighted.insert(key, value);
+                expected.putIfAbsent(key, value);
+            } else {
+                weighted.delete(key);
+                expected.remove(key);
+            }
+        }
+
+        assertTrue(weighted.validateRedBlackTree(), "Augmented sums and counts should stay consistent.");
+        for (long lo = 0; lo < 1000; lo += 53) {
+            long hi = lo + random.nextInt(400);
+            long sum = 0;
+            for (int value : expected.subMap(lo, true, hi, true).values()) {
+                sum += value;
+            }
+            assertEquals(sum, weighted.sumInRange(lo, hi));
+            assertEquals(expected.subMap(lo, true, hi, true).size(), weighted.countInRange(lo, hi));
+        }
+    }
+
+    /* ------------------ Bulk Load Tests ------------------ */
+
+    @Test
+    public void testBulkLoadIsValidForEverySize() {
+        for (int n = 0; n <= 300; n++) {
+            LongRedBlackTree<Integer> loaded = new LongRedBlackTree<>();
+            long[] keys = new long[n];
+            Integer[] values = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = i * 3L;
+                values[i] = i;
+            }
+
+            loaded.bulkLoad(keys, values, n);
+
+            assertTrue(loaded.validateRedBlackTree(), "Bulk-loaded tree of size " + n + " should be valid.");
+            assertEquals(n, loaded.getSize());
+            if (n > 0) {
+                assertEquals(n - 1, loaded.getValue(keys[n - 1]));
+                loaded.insert(1L, -1);
+                loaded.delete(0L);
+                assertTrue(loaded.validateRedBlackTree(), "Bulk-loaded tree should stay valid after updates.");
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the OwnerIndex class.
+ */
+public class OwnerIndexTest {
+
+    @Test
+    public void testMatchesHashMapOfLists() {
+        OwnerIndex index = new OwnerIndex();
+        HashMap<String, List<SeatAssignment>> expected = new HashMap<>();
+        List<SeatAssignment> live = new ArrayList<>();
+        Random random = new Random(13);
+
+        // Enough owners to grow the table several times, with removals shifting probe runs
+        for (int i = 0; i < 20000; i++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                SeatAssignment booking = new SeatAssignment("Owner " + random.nextInt(6000), 1 + random.nextInt(9), i);
+                index.add(booking);
+                expected.computeIfAbsent(booking.getOwner(), owner -> new ArrayList<>()).add(booking);
+                live.add(booking);
+            } else {
+                SeatAssignment booking = live.remove(random.nextInt(live.size()));
+                assertTrue(index.remove(booking));
+                List<SeatAssignment> bookings = expected.get(booking.getOwner());
+                bookings.remove(booking);
+                if (bookings.isEmpty()) expected.remove(booking.getOwner());
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int owner = 0; owner < 6000; owner++) {
+            String name = "Owner " + owner;
+            List<SeatAssignment> bookings = expected.get(name);
+            if (bookings == null) {
+                assertNull(index.latest(name));
+                assertEquals(0, index.all(name).length);
+            } else {
+                assertSame(bookings.get(bookings.size() - 1), index.latest(name));
+                assertArrayEquals(bookings.toArray(), index.all(name));
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveOnlyMatchesTheStoredBooking() {
+        OwnerIndex index = new OwnerIndex();
+        SeatAssignment booking = new SeatAssignment("Ann", 4, 10);
+        index.add(booking);
+
+        assertFalse(index.remove(new SeatAssignment("Ann", 4, 10)), "Only the stored instance should be removed.");
+        assertFalse(index.remove(new SeatAssignment("Bo", 4, 10)));
+        assertTrue(index.remove(booking));
+        assertNull(index.latest("Ann"));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,136 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PersistentLongRedBlackTree class.
+ */
+public class PersistentLongRedBlackTreeTest {
+
+    private static PersistentLongRedBlackTree<Integer> weighted() {
+        return new PersistentLongRedBlackTree<>() {
+            @Override
+            protected long weight(Integer value) {
+                return value;
+            }
+        };
+    }
+
+    private static List<Integer> valuesOf(PersistentLongRedBlackTree.Node<Integer> version) {
+        List<Integer> values = new ArrayList<>();
+        Iterator<Integer> iterator = PersistentLongRedBlackTree.values(version);
+        while (iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+        return values;
+    }
+
+    private static void collect(PersistentLongRedBlackTree.Node<Integer> node, Map<Object, Boolean> seen) {
+        if (node == null) return;
+        seen.put(node, true);
+        collect(node.left, seen);
+        collect(node.right, seen);
+    }
+
+    @Test
+    public void testRandomMixMatchesTreeMap() {
+        PersistentLongRedBlackTree<Integer> tree = weighted();
+        Random random = new Random(7);
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextInt(3) > 0) {
+                tree.insert(key, i % 100);
+                expected.putIfAbsent(key, i % 100);
+            } else {
+                assertEquals(expected.remove(key), tree.delete(key), "Delete should return the removed value.");
+            }
+            if (i % 1000 == 0) {
+                assertTrue(tree.validateRedBlackTree(), "Tree should stay valid after operation " + i);
+            }
+        }
+
+        assertTrue(tree.validateRedBlackTree());
+        assertEquals(expected.size(), tree.getSize());
+        assertEquals(new ArrayList<>(expected.values()), valuesOf(tree.getRoot()));
+        long sum = 0;
+        for (int value : expected.subMap(300L, true, 900L, true).values()) {
+            sum += value;
+        }
+        assertEquals(sum, tree.sumInRange(300, 900));
+        assertEquals(expected.headMap(1000L).size(), tree.rank(1000));
+        assertEquals(expected.ceilingEntry(1234L).getValue(), tree.ceilingValue(1234));
+
+        PersistentLongRedBlackTree.Node<Integer> version = tree.getRoot();
+        assertNull(tree.delete(5000));
+        assertSame(version, tree.getRoot(), "Deleting a missing key should not copy any node.");
+    }
+
+    @Test
+    public void testOldVersionsNeverChange() {
+        PersistentLongRedBlackTree<Integer> tree = weighted();
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(i);
+        }
+        Collections.shuffle(keys, new Random(3));
+        for (int key : keys) {
+            tree.insert(key, key);
+        }
+        PersistentLongRedBlackTree.Node<Integer> before = tree.getRoot();
+        List<Integer> valuesBefore = valuesOf(before);
+
+        Map<Object, Boolean> shared = new IdentityHashMap<>();
+        collect(before, shared);
+        tree.delete(500);
+        tree.insert(5000, 5000);
+        Map<Object, Boolean> after = new IdentityHashMap<>();
+        collect(tree.getRoot(), after);
+        int copied = 0;
+        for (Object node : after.keySet()) {
+            if (!shared.containsKey(node)) copied++;
+        }
+
+        assertEquals(valuesBefore, valuesOf(before), "A version taken earlier should not see later updates.");
+        assertEquals(1000, before.count);
+        assertTrue(copied <= 60, "Two updates should copy only O(log n) nodes, copied " + copied);
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    @Test
+    public void testBulkLoadIsValidForEverySize() {
+        for (int n = 0; n <= 200; n++) {
+            PersistentLongRedBlackTree<Integer> loaded = weighted();
+            long[] keys = new long[n];
+            Integer[] values = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = i * 2L;
+                values[i] = i;
+            }
+
+            loaded.bulkLoad(keys, values, n);
+
+            assertTrue(loaded.validateRedBlackTree(), "Bulk-loaded tree of size " + n + " should be valid.");
+            assertEquals(n, loaded.getSize());
+            if (n > 0) {
+                loaded.insert(1L, -1);
+                loaded.delete(0L);
+                assertTrue(loaded.validateRedBlackTree(), "Bulk-loaded tree should stay valid after updates.");
+            }
+        }
+    }
+}
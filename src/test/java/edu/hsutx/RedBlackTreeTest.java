@@ -311,4 +311,27 @@ public class RedBlackTreeTest {
 
         assertTrue(tree.validateRedBlackTree(), "Tree should be valid after deletions.");
     }
+
+    @Test
+    public void testKeysAreOrderedIgnoringCase() {
+        tree.insert("Banana", 1);
+        tree.insert("apple", 2);
+        tree.insert("Cherry", 3);
+        tree.insert("banana", 4);
+
+        StringBuilder order = new StringBuilder();
+        inOrder(tree.root, order);
+        assertEquals("apple Banana banana Cherry ", order.toString(), "Keys should sort alphabetically regardless of case.");
+        assertEquals(4, tree.getSize(), "Keys that differ only in case should stay distinct.");
+        assertEquals(1, tree.getValue("Banana"));
+        assertEquals(4, tree.getValue("banana"));
+        assertTrue(tree.validateRedBlackTree());
+    }
+
+    private static void inOrder(RedBlackTree<Integer>.Node node, StringBuilder order) {
+        if (node == null || node.key == null) return;
+        inOrder(node.left, order);
+        order.append(node.key).append(' ');
+        inOrder(node.right, order);
+    }
 }
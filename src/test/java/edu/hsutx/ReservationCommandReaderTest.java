@@ -0,0 +1,83 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ReservationCommandReader class.
+ */
+public class ReservationCommandReaderTest {
+
+    private static Path write(String text, Charset charset) throws IOException {
+        Path file = Files.createTempFile("reservations", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(charset));
+        return file;
+    }
+
+    @Test
+    public void testDecodesCommandsAcrossWindows() throws IOException {
+        // UTF_16 writes a big-endian BOM; the 40-byte window forces remapping in the middle of lines
+        Path file = write("a,Ann Lee,12,40\r\n\r\nd,Bo\r\na,Ann Lee,3,-1\r\na,Di,4,50,5000\r\na,Cy,999999,100", StandardCharsets.UTF_16);
+        ReservationCommand command = new ReservationCommand();
+
+        try (ReservationCommandReader reader = new ReservationCommandReader(file, 40)) {
+            assertTrue(reader.next(command));
+            String firstName = command.getName();
+            assertEquals("a,Ann Lee,12,40", command.toString());
+
+            assertTrue(reader.next(command));
+            assertEquals(ReservationCommand.DELETE, command.getType());
+            assertEquals("Bo", command.getName());
+            assertEquals(3, reader.getLineNumber(), "Blank lines should still be counted.");
+
+            assertTrue(reader.next(command));
+            assertSame(firstName, command.getName(), "A repeated owner should reuse the pooled name.");
+            assertEquals(3, command.getSeatsNeeded());
+            assertEquals(-1, command.getPreference());
+            assertEquals(0, command.getTargetSeat(), "A line without a target seat should clear it.");
+
+            assertTrue(reader.next(command));
+            assertEquals(50, command.getPreference());
+            assertEquals(5000, command.getTargetSeat());
+            assertEquals("a,Di,4,50,5000", command.toString());
+
+            assertTrue(reader.next(command), "The last line does not need a line terminator.");
+            assertEquals(999999, command.getSeatsNeeded());
+            assertFalse(reader.next(command));
+        }
+    }
+
+    @Test
+    public void testLittleEndianAndMalformedLines() throws IOException {
+        Path file = write("\uFEFFd,Zed\na,Zed,x,1\n", StandardCharsets.UTF_16LE);
+        ReservationCommand command = new ReservationCommand();
+
+        try (ReservationCommandReader reader = new ReservationCommandReader(file)) {
+            assertTrue(reader.next(command));
+            assertEquals("d,Zed", command.toString());
+            assertThrows(IOException.class, () -> reader.next(command), "A non-numeric seat count should be rejected.");
+        }
+    }
+
+    @Test
+    public void testRejectsEmptyAndNegativeParties() throws IOException {
+        ReservationCommand command = new ReservationCommand();
+        for (String line : new String[] {"a,Zed,0,0\n", "a,Neg,-5,0\n"}) {
+            try (ReservationCommandReader reader = new ReservationCommandReader(write(line, StandardCharsets.UTF_16))) {
+                assertThrows(IOException.class, () -> reader.next(command), "A seat count below one should be rejected: " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ReservationController class, run without a display.
+ */
+public class ReservationControllerTest {
+
+    @Test
+    public void testControllerAcceptsTreesWithoutVersions() {
+        for (CowboySeatTree.Backend backend : new CowboySeatTree.Backend[] {CowboySeatTree.Backend.NODES, CowboySeatTree.Backend.ARENA}) {
+            ReservationController controller = new ReservationController(new CowboySeatTree(backend), null, EventLog.disabled());
+            assertNull(controller.getChangeFeed(), backend + " trees should be drawn directly, without a feed.");
+        }
+        ReservationController controller = new ReservationController(new CowboySeatTree(), null, EventLog.disabled());
+        assertNull(controller.getChangeFeed(), "The default tree should not need the persistent backend.");
+    }
+
+    @Test
+    public void testPersistentTreesFeedTheView() {
+        CowboySeatTree seatTree = new CowboySeatTree(CowboySeatTree.Backend.PERSISTENT);
+        ReservationController controller = new ReservationController(seatTree, null, EventLog.disabled());
+        SeatChangeFeed feed = controller.getChangeFeed();
+        assertNotNull(feed);
+
+        seatTree.insert(new SeatAssignment(100, 1));
+        seatTree.allocate("Ann Lee", 4, 0);
+        assertNotNull(feed.getVersion(), "The tree should publish its changes to the controller's feed.");
+    }
+}
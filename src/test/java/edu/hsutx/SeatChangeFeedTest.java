@@ -0,0 +1,138 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SeatChangeFeed class.
+ */
+public class SeatChangeFeedTest {
+
+    /**
+     * Keeps a seat map the way a viewer would: true for reserved seats.
+     */
+    private static class MapSink implements SeatChangeFeed.Sink {
+        final boolean[] reserved;
+        final List<int[]> runs = new ArrayList<>();
+        int resyncs;
+        int mismatches;
+
+        MapSink(int seats) {
+            reserved = new boolean[seats + 1];
+        }
+
+        @Override
+        public void seatsChanged(int start, int length, boolean assigned) {
+            runs.add(new int[] {start, length, assigned ? 1 : 0});
+            Arrays.fill(reserved, start, start + length, assigned);
+        }
+
+        @Override
+        public void resync(PersistentLongRedBlackTree.Node<SeatAssignment> freeBlocks,
+                           PersistentLongRedBlackTree.Node<SeatAssignment> reservations) {
+            resyncs++;
+            Arrays.fill(reserved, 1, reserved.length, true);
+            Iterator<SeatAssignment> free = PersistentLongRedBlackTree.values(freeBlocks);
+            while (free.hasNext()) {
+                SeatAssignment block = free.next();
+                Arrays.fill(reserved, block.getSeatStartIndex(), block.getSeatStartIndex() + block.getSeatQuantity(), false);
+            }
+            // The reservations must cover exactly the seats the free blocks leave
+            long booked = 0;
+            Iterator<SeatAssignment> bookings = PersistentLongRedBlackTree.values(reservations);
+            while (bookings.hasNext()) {
+                SeatAssignment block = bookings.next();
+                for (int seat = block.getSeatStartIndex(); seat < block.getSeatStartIndex() + block.getSeatQuantity(); seat++) {
+                    if (!reserved[seat]) mismatches++;
+                }
+                booked += block.getSeatQuantity();
+            }
+            long taken = 0;
+            for (int seat = 1; seat < reserved.length; seat++) {
+                if (reserved[seat]) taken++;
+            }
+            if (booked != taken) mismatches++;
+        }
+    }
+
+    private static boolean[] reservedSeats(CowboySeatTree seatTree, int seats) {
+        boolean[] reserved = new boolean[seats + 1];
+        Iterator<SeatAssignment> blocks = seatTree.blocks();
+        while (blocks.hasNext()) {
+            SeatAssignment block = blocks.next();
+            if (block.getOwner() != null) {
+                Arrays.fill(reserved, block.getSeatStartIndex(), block.getSeatStartIndex() + block.getSeatQuantity(), true);
+            }
+        }
+        return reserved;
+    }
+
+    @Test
+    public void testDrainMergesRunsThatContinueEachOther() {
+        CowboySeatTree seatTree = new CowboySeatTree(CowboySeatTree.Backend.PERSISTENT);
+        SeatChangeFeed feed = new SeatChangeFeed(16);
+        seatTree.setChangeFeed(feed);
+        seatTree.insert(new SeatAssignment(1000, 1));
+        seatTree.reserve("A", 10, 1);
+        seatTree.reserve("B", 5, 11);
+        seatTree.reserve("C", 5, 100);
+        seatTree.release(seatTree.getReservation("C"));
+
+        MapSink sink = new MapSink(1000);
+        assertEquals(4, feed.drain(sink));
+        assertEquals(3, sink.runs.size());
+        assertArrayEquals(new int[] {1, 15, 1}, sink.runs.get(0));
+        assertArrayEquals(new int[] {100, 5, 1}, sink.runs.get(1));
+        assertArrayEquals(new int[] {100, 5, 0}, sink.runs.get(2));
+        assertEquals(0, feed.drain(sink));
+        assertSame(seatTree.getFreeBlockVersion(), feed.getVersion());
+    }
+
+    @Test
+    public void testOverflowResyncsToTheLatestVersion() {
+        int seats = 20000;
+        CowboySeatTree seatTree = new CowboySeatTree(CowboySeatTree.Backend.PERSISTENT);
+        SeatChangeFeed feed = new SeatChangeFeed(8);
+        seatTree.setChangeFeed(feed);
+        seatTree.insert(new SeatAssignment(seats, 1));
+        MapSink sink = new MapSink(seats);
+        Random random = new Random(11);
+
+        List<String> owners = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            if (owners.isEmpty() || random.nextInt(3) > 0) {
+                String owner = "owner" + i;
+                if (seatTree.allocate(owner, 1 + random.nextInt(20), random.nextInt(101)) != null) {
+                    owners.add(owner);
+                }
+            } else {
+                seatTree.cancel(owners.remove(random.nextInt(owners.size())));
+            }
+            // Drain irregularly, sometimes long after the ring filled up
+            if (random.nextInt(10) == 0) {
+                feed.drain(sink);
+            }
+        }
+        feed.drain(sink);
+
+        assertTrue(sink.resyncs > 0);
+        assertEquals(0, sink.mismatches, "Each resync should pair free blocks and reservations from one change.");
+        assertArrayEquals(reservedSeats(seatTree, seats), sink.reserved);
+    }
+
+    @Test
+    public void testRequiresThePersistentBackend() {
+        assertThrows(IllegalStateException.class, () -> new CowboySeatTree().setChangeFeed(new SeatChangeFeed()));
+    }
+}
@@ -0,0 +1,146 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SeatMapSnapshot and Checkpointer classes.
+ */
+public class SeatMapSnapshotTest {
+
+    private static Path tempFile(String suffix) throws IOException {
+        Path file = Files.createTempFile("seatmap", suffix);
+        file.toFile().deleteOnExit();
+        Files.delete(file);
+        return file;
+    }
+
+    private static void assertSameSeatMap(CowboySeatTree expected, CowboySeatTree actual) {
+        Iterator<SeatAssignment> a = expected.blocks();
+        Iterator<SeatAssignment> b = actual.blocks();
+        while (a.hasNext()) {
+            SeatAssignment x = a.next();
+            SeatAssignment y = b.next();
+            assertEquals(x.getPackedKey(), y.getPackedKey());
+            assertEquals(x.getOwner(), y.getOwner());
+        }
+        assertFalse(b.hasNext());
+    }
+
+    @Test
+    public void testRoundTripAndChecksum() throws IOException {
+        CowboySeatTree tree = new CowboySeatTree();
+        tree.insert(new SeatAssignment(5000, 1));
+        for (int i = 0; i < 300; i++) {
+            tree.allocate("Owner " + i + (i % 10 == 0 ? " \u00e9" : ""), 1 + i % 13, (i * 31) % 101);
+            if (i % 4 == 0) {
+                tree.release(tree.getReservation("Owner " + (i / 2) + ((i / 2) % 10 == 0 ? " \u00e9" : "")));
+            }
+        }
+        Path file = tempFile(".snap");
+
+        SeatMapSnapshot.capture(tree, 77).writeTo(file);
+        CowboySeatTree loaded = new CowboySeatTree(CowboySeatTree.Backend.ARENA);
+
+        assertEquals(77, SeatMapSnapshot.load(file, loaded));
+        assertSameSeatMap(tree, loaded);
+        assertEquals(tree.getReservation("Owner 290 \u00e9").getSeatStartIndex(), loaded.getReservation("Owner 290 \u00e9").getSeatStartIndex());
+        assertTrue(loaded.validateRedBlackTree());
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(40);
+            raw.write(raw.read() ^ 1);
+        }
+        assertThrows(IOException.class, () -> SeatMapSnapshot.load(file, new CowboySeatTree()), "A flipped bit should fail the checksum.");
+    }
+
+    @Test
+    public void testRoundTripKeepsEachOwnersBookingOrder() throws IOException {
+        CowboySeatTree tree = new CowboySeatTree();
+        tree.insert(new SeatAssignment(1000, 1));
+        tree.reserve("Ann", 10, 500);
+        tree.reserve("Bo", 5, 700);
+        tree.reserve("Ann", 10, 100);
+        tree.reserve("Ann", 10, 300);
+        tree.cancel("Ann");
+        assertEquals(100, tree.getReservation("Ann").getSeatStartIndex());
+        Path file = tempFile(".snap");
+
+        SeatMapSnapshot.capture(tree, 4).writeTo(file);
+        CowboySeatTree loaded = new CowboySeatTree(CowboySeatTree.Backend.PERSISTENT);
+        SeatMapSnapshot.load(file, loaded);
+
+        assertSameSeatMap(tree, loaded);
+        assertEquals(100, loaded.getReservation("Ann").getSeatStartIndex(), "The latest booking, not the last by seat, should be restored as latest.");
+        loaded.reserve("Ann", 10, 50);
+        assertEquals(50, loaded.getReservation("Ann").getSeatStartIndex(), "A booking made after the restore should be the latest.");
+        loaded.cancel("Ann");
+        loaded.cancel("Ann");
+        assertEquals(500, loaded.getReservation("Ann").getSeatStartIndex());
+        assertEquals(1, loaded.getReservations("Ann").length);
+    }
+
+    @Test
+    public void testCheckpointerRestartsFromSnapshotAndTail() throws IOException {
+        Path logFile = tempFile(".wal");
+        Path snapshotFile = tempFile(".snap");
+        CowboySeatTree tree = new CowboySeatTree();
+        tree.insert(new SeatAssignment(100000, 1));
+        try (WriteAheadLog wal = new WriteAheadLog(logFile);
+             Checkpointer checkpointer = new Checkpointer(tree, wal, snapshotFile, 100)) {
+            for (int i = 0; i < 1050; i++) {
+                wal.logAllocate(tree.allocate("P" + i, 1 + i % 50, i % 101));
+                checkpointer.afterChange();
+            }
+        }
+
+        CowboySeatTree restored = new CowboySeatTree();
+        try (WriteAheadLog wal = new WriteAheadLog(logFile)) {
+            long replayed = Checkpointer.recover(restored, wal, snapshotFile, 100000);
+            assertTrue(replayed < 1050, "Only the tail after the latest snapshot should be replayed.");
+        }
+        assertSameSeatMap(tree, restored);
+    }
+
+    @Test
+    public void testBatchedReplayCountsEveryChangeTowardsSnapshots() throws IOException {
+        Path csv = tempFile(".csv");
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < 1050; i++) {
+            commands.append("a,P").append(i).append(',').append(1 + i % 50).append(',').append(i % 101).append("\r\n");
+        }
+        Files.write(csv, commands.toString().getBytes(StandardCharsets.UTF_16));
+        Path logFile = tempFile(".wal");
+        Path snapshotFile = tempFile(".snap");
+
+        CowboySeatTree tree = new CowboySeatTree();
+        try (WriteAheadLog wal = new WriteAheadLog(logFile);
+             Checkpointer checkpointer = new Checkpointer(tree, wal, snapshotFile, 100);
+             ReservationCommandReader reader = new ReservationCommandReader(csv)) {
+            BatchReplay replay = new BatchReplay(tree, EventLog.disabled(), wal);
+            replay.setBatching(64, false);
+            replay.setCheckpointer(checkpointer);
+            replay.replay(reader);
+            assertEquals(1050, replay.getAllocationCount());
+        }
+        assertTrue(Files.exists(snapshotFile), "Batches should count towards the snapshot interval.");
+
+        CowboySeatTree restored = new CowboySeatTree();
+        try (WriteAheadLog wal = new WriteAheadLog(logFile)) {
+            long replayed = Checkpointer.recover(restored, wal, snapshotFile, BatchReplay.STADIUM_SEATS);
+            assertTrue(replayed < 1050, "Only the tail after the latest snapshot should be replayed.");
+        }
+        assertSameSeatMap(tree, restored);
+    }
+}
@@ -0,0 +1,82 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SectionedReservationEngine class.
+ */
+public class SectionedReservationEngineTest {
+
+    @Test
+    public void testPartyCrossesSectionBoundary() {
+        SectionedReservationEngine engine = new SectionedReservationEngine(100, 2, CowboySeatTree.Backend.NODES);
+
+        SeatAssignment[] parts = engine.allocate("Big Party", 80, 50);
+
+        assertNotNull(parts, "A party larger than any section should use the cross-section fallback.");
+        assertEquals(2, parts.length);
+        assertEquals(80, parts[0].getSeatQuantity() + parts[1].getSeatQuantity());
+        assertEquals(51, parts[1].getSeatStartIndex(), "The upper part should start at the boundary.");
+        assertEquals(20, engine.getFreeSeatCount());
+
+        engine.cancel("Big Party");
+
+        assertEquals(100, engine.getFreeSeatCount());
+        assertNull(engine.allocate("Too Big", 101, 0));
+    }
+
+    @Test
+    public void testOwnersCanHoldSeveralBookings() {
+        SectionedReservationEngine engine = new SectionedReservationEngine(1000, 4, CowboySeatTree.Backend.NODES);
+
+        SeatAssignment[] first = engine.allocate("Ann", 10, 0);
+        SeatAssignment[] second = engine.allocate("Ann", 20, 0);
+        assertNull(engine.allocate("Ann", 0, 0), "A party of no seats should not be booked.");
+        assertEquals(970, engine.getFreeSeatCount());
+
+        assertEquals(second[0].getSeatStartIndex(), engine.cancel("Ann")[0].getSeatStartIndex(), "The latest booking should be cancelled first.");
+        assertEquals(990, engine.getFreeSeatCount());
+        assertEquals(first[0].getSeatStartIndex(), engine.cancel("Ann")[0].getSeatStartIndex(), "The earlier booking should still be cancellable.");
+        assertEquals(1000, engine.getFreeSeatCount());
+        assertNull(engine.cancel("Ann"));
+    }
+
+    @Test
+    public void testConcurrentRequestsKeepSeatsConsistent() throws InterruptedException {
+        int totalSeats = 200000;
+        SectionedReservationEngine engine = new SectionedReservationEngine(totalSeats, 8, CowboySeatTree.Backend.ARENA);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(id);
+                for (int i = 0; i < 5000; i++) {
+                    String owner = "T" + id + "-" + i;
+                    engine.allocate(owner, 1 + random.nextInt(100), random.nextInt(101));
+                    if (i % 3 == 0) {
+                        engine.cancel("T" + id + "-" + random.nextInt(i + 1));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(engine.validateRedBlackTree(), "Every section should stay a valid tree under contention.");
+        long reserved = totalSeats - engine.getFreeSeatCount();
+        assertTrue(reserved > 0 && reserved < totalSeats);
+    }
+}
@@ -0,0 +1,87 @@
+package edu.hsutx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the WriteAheadLog class.
+ */
+public class WriteAheadLogTest {
+
+    private static CowboySeatTree emptyStadium(int seats) {
+        CowboySeatTree tree = new CowboySeatTree();
+        tree.insert(new SeatAssignment(seats, 1));
+        return tree;
+    }
+
+    private static Path tempLog() throws IOException {
+        Path file = Files.createTempFile("reservations", ".wal");
+        file.toFile().deleteOnExit();
+        Files.delete(file);
+        return file;
+    }
+
+    @Test
+    public void testRecoveryIgnoresTornTail() throws IOException {
+        Path file = tempLog();
+        CowboySeatTree tree = emptyStadium(1000);
+        try (WriteAheadLog wal = new WriteAheadLog(file)) {
+            long last = 0;
+            for (int i = 0; i < 50; i++) {
+                last = wal.logAllocate(tree.allocate("Party " + i, 1 + i % 7, (i * 37) % 101));
+            }
+            SeatAssignment cancelled = tree.getReservation("Party 10");
+            tree.release(cancelled);
+            last = wal.logRelease(cancelled);
+            wal.sync();
+            assertEquals(last, wal.getDurableLsn(), "Every append should be durable once synced.");
+        }
+        // A crash in the middle of the next group leaves half a record behind
+        Files.write(file, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        CowboySeatTree recovered = emptyStadium(1000);
+        try (WriteAheadLog wal = new WriteAheadLog(file)) {
+            assertEquals(51, wal.replay(recovered, 0));
+            assertEquals(51, wal.getLastLsn(), "The torn record should be dropped.");
+            assertEquals(52, wal.logAllocate(recovered.allocate("Late", 3, 0)));
+        }
+
+        assertNull(recovered.getReservation("Party 10"));
+        assertEquals(tree.getReservedSeatCount() + 3, recovered.getReservedSeatCount());
+        assertEquals(tree.getReservation("Party 42").getSeatStartIndex(), recovered.getReservation("Party 42").getSeatStartIndex());
+        assertTrue(recovered.validateRedBlackTree());
+    }
+
+    @Test
+    public void testTruncateKeepsOnlyTheTail() throws IOException {
+        Path file = tempLog();
+        CowboySeatTree tree = emptyStadium(100);
+        try (WriteAheadLog wal = new WriteAheadLog(file)) {
+            wal.logAllocate(tree.allocate("A", 10, 0));
+            wal.logAllocate(tree.allocate("B", 10, 0));
+            wal.logAllocate(tree.allocate("C", 10, 0));
+            wal.truncateThrough(2);
+            wal.logAllocate(tree.allocate("D", 10, 0));
+        }
+
+        // State as of LSN 2, as a snapshot would hold it
+        CowboySeatTree restored = emptyStadium(100);
+        restored.reserve("A", 10, 1);
+        restored.reserve("B", 10, 11);
+        try (WriteAheadLog wal = new WriteAheadLog(file)) {
+            assertEquals(2, wal.replay(restored, 2));
+            assertEquals(4, wal.getLastLsn());
+        }
+        assertNotNull(restored.getReservation("D"));
+        assertEquals(40, restored.getReservedSeatCount());
+    }
+}